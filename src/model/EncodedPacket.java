@@ -0,0 +1,39 @@
+package model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+// 브로드캐스트용: 패킷을 한 번만 직렬화해 두고 같은 바이트를 여러 클라이언트 스트림에 그대로 쓴다.
+//
+// 바이트 구성은 [TC_RESET][객체 레코드]이다.
+// 받는 쪽 ObjectInputStream은 TC_RESET에서 핸들 테이블을 비운 뒤 객체를 읽으므로,
+// 연결마다 지금까지 주고받은 내용과 상관없이 같은 바이트로 해석된다.
+// 보낸 쪽 ObjectOutputStream은 이 바이트를 모르므로, 다음에 writeObject를 하기 전 reset()해야 한다.
+public final class EncodedPacket {
+
+    private static final int STREAM_HEADER_SIZE = 4; // ObjectOutputStream 헤더 (0xACED 0005)
+
+    private final byte[] bytes;
+
+    public EncodedPacket(GamePacket packet) throws IOException {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream(512);
+        ObjectOutputStream out = new ObjectOutputStream(buf);
+        out.reset();
+        out.writeObject(packet);
+        out.flush();
+        byte[] all = buf.toByteArray();
+        this.bytes = Arrays.copyOfRange(all, STREAM_HEADER_SIZE, all.length);
+    }
+
+    // ObjectOutputStream 아래의 원본 스트림에 쓴다 (호출 전 ObjectOutputStream을 flush할 것)
+    public void writeTo(OutputStream rawOut) throws IOException {
+        rawOut.write(bytes);
+    }
+
+    public int size() {
+        return bytes.length;
+    }
+}
@@ -1,20 +1,25 @@
 package server;
 
+import model.EncodedPacket;
 import model.GamePacket;
+import model.ResettingObjectOutputStream;
 import java.awt.Dimension;
 import java.io.*;
 import java.net.*;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class GameServer {
     private final int port;
     private ServerSocket serverSocket;
 
     // --- 클라이언트 관리 ---
-    private final List<ClientHandler> clients = Collections.synchronizedList(new ArrayList<>());
+    // 순회 중 블로킹 전송이 일어나므로 모니터(synchronized) 대신 복사-쓰기 리스트 사용
+    private final List<ClientHandler> clients = new CopyOnWriteArrayList<>();
     private final Map<String, Integer> scores = new ConcurrentHashMap<>();
-    private final Map<String, Integer> expMap = new ConcurrentHashMap<>();
+    private final ProfileStore profiles; // 경험치 (재시작 후에도 유지, 디스크 쓰기는 별도 스레드가 묶어서)
 
     // --- 라운드/정답 관리 ---
     private final GameLogic gameLogic;
@@ -24,25 +29,38 @@ public class GameServer {
         this.port = port;
         this.gameLogic = new GameLogic();
         System.out.println("[서버] 정답 데이터 및 로직 초기화 완료");
+        this.profiles = ProfileStore.open();
+        Runtime.getRuntime().addShutdownHook(new Thread(profiles::close, "profile-close"));
     }
 
     // ------------------- 서버 시작 -------------------
-    public void start() throws IOException {
+    // virtualThreads: true면 연결마다 가상 스레드 사용
+    public void start(boolean virtualThreads) throws IOException {
         serverSocket = new ServerSocket(port);
-        System.out.println("[서버] 숨은 그림 찾기 서버 시작 (port=" + port + ")");
+        System.out.println("[서버] 숨은 그림 찾기 서버 시작 (port=" + port + ", "
+                + (virtualThreads ? "가상 스레드" : "플랫폼 스레드") + ")");
+        Thread.Builder threadBuilder = virtualThreads
+                ? Thread.ofVirtual().name("client-", 0)
+                : Thread.ofPlatform().name("client-", 0);
         while (true) {
             Socket socket = serverSocket.accept();
             ClientHandler handler = new ClientHandler(socket);
             clients.add(handler);
-            handler.start();
+            threadBuilder.start(handler);
         }
     }
 
     // ------------------- 브로드캐스트 -------------------
+    // 패킷은 한 번만 직렬화하고 모든 클라이언트에 같은 바이트를 보낸다
     private void broadcast(GamePacket p) {
-        synchronized (clients) {
-            for (ClientHandler c : clients) c.sendPacket(p);
+        EncodedPacket encoded;
+        try {
+            encoded = new EncodedPacket(p);
+        } catch (IOException e) {
+            System.out.println("[서버] 패킷 직렬화 실패: " + e.getMessage());
+            return;
         }
+        for (ClientHandler c : clients) c.sendPacket(encoded);
     }
 
     private void broadcastScore() {
@@ -61,19 +79,28 @@ public class GameServer {
     }
 
     // ------------------- 내부 클래스: 클라이언트 핸들러 -------------------
-    private class ClientHandler extends Thread {
+    private class ClientHandler implements Runnable {
         private final Socket socket;
-        private ObjectOutputStream out;
+        private OutputStream rawOut;      // ObjectOutputStream 아래 원본 스트림 (공유 바이트 전송용)
+        private ResettingObjectOutputStream out; // 주기적 reset으로 핸들 테이블 크기 제한
         private ObjectInputStream in;
         private String playerName = "";
         private String difficulty = "쉬움";
+        private final ReentrantLock writeLock = new ReentrantLock();
 
         ClientHandler(Socket socket) { this.socket = socket; }
 
         @Override
         public void run() {
             try {
-                out = new ObjectOutputStream(socket.getOutputStream());
+                writeLock.lock();
+                try {
+                    rawOut = new BufferedOutputStream(socket.getOutputStream());
+                    out = new ResettingObjectOutputStream(rawOut);
+                    out.flush();
+                } finally {
+                    writeLock.unlock();
+                }
                 in = new ObjectInputStream(socket.getInputStream());
 
                 while (true) {
@@ -112,7 +139,6 @@ public class GameServer {
             playerName = name;
             difficulty = p.getDifficulty() != null ? p.getDifficulty() : "쉬움";
             scores.put(playerName, 0);
-            expMap.putIfAbsent(playerName, 0);
 
             System.out.println("[서버] 접속: " + name + " (" + difficulty + ")");
             sendPacket(new GamePacket(GamePacket.Type.MESSAGE, "SERVER", "[확인] 닉네임 사용 가능"));
@@ -123,10 +149,8 @@ public class GameServer {
         }
 
         private boolean isDuplicateName(String name) {
-            synchronized (clients) {
-                for (ClientHandler c : clients)
-                    if (name.equals(c.playerName)) return true;
-            }
+            for (ClientHandler c : clients)
+                if (name.equals(c.playerName)) return true;
             return false;
         }
 
@@ -137,7 +161,7 @@ public class GameServer {
 
             if (correct) {
                 scores.put(playerName, scores.getOrDefault(playerName, 0) + 10);
-                expMap.put(playerName, expMap.getOrDefault(playerName, 0) + 10);
+                profiles.addExp(playerName, 10); // 메모리만 (디스크 I/O 없음)
             } else {
                 scores.put(playerName, scores.getOrDefault(playerName, 0) - 5);
             }
@@ -161,8 +185,8 @@ public class GameServer {
 
         // --- MYPAGE ---
         private void handleMyPage(GamePacket p) {
-            int exp = expMap.getOrDefault(p.getSender(), 0);
-            int level = exp / 50 + 1;
+            int exp = profiles.getExp(p.getSender());
+            int level = ProfileStore.levelOf(exp);
             sendPacket(new GamePacket(GamePacket.Type.MYPAGE_DATA, "SERVER", exp, level, true));
         }
 
@@ -177,20 +201,42 @@ public class GameServer {
         }
 
         // --- 유틸 ---
+        // 여러 핸들러 스레드가 같은 스트림에 쓰므로 연결 단위 잠금 (가상 스레드 고정 방지용 ReentrantLock)
         void sendPacket(GamePacket packet) {
+            writeLock.lock();
+            try {
+                if (out != null) {
+                    out.writePacket(packet);
+                }
+            } catch (IOException ignored) {
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        // 브로드캐스트용: 한 번 직렬화된 바이트를 그대로 전송
+        void sendPacket(EncodedPacket packet) {
+            writeLock.lock();
             try {
                 if (out != null) {
-                    out.writeObject(packet);
                     out.flush();
+                    packet.writeTo(rawOut);
+                    rawOut.flush();
+                    out.requestReset(); // 상대 쪽 핸들 테이블은 공유 바이트의 TC_RESET으로 이미 비워짐
                 }
-            } catch (IOException ignored) {}
+            } catch (IOException ignored) {
+            } finally {
+                writeLock.unlock();
+            }
         }
     }
 
     // ------------------- main -------------------
+    // 실행 인자 "virtual"을 주면 가상 스레드 모드
     public static void main(String[] args) {
+        boolean virtualThreads = args.length > 0 && args[0].equals("virtual");
         try {
-            new GameServer(9999).start();
+            new GameServer(9999).start(virtualThreads);
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -1,13 +1,17 @@
 package server;
 
+import model.EncodedPacket;
 import model.GamePacket;
+import model.ResettingObjectOutputStream;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class HiddenObjectServer {
 
@@ -16,11 +20,14 @@ public class HiddenObjectServer {
 
     private final Map<String, ClientHandler> clients = new ConcurrentHashMap<>();
     private final Map<String, Integer> scores = new ConcurrentHashMap<>();
-    private final Map<String, Integer> expMap = new ConcurrentHashMap<>();
+    private ProfileStore profiles; // 경험치 (재시작 후에도 유지, 디스크 쓰기는 별도 스레드가 묶어서)
 
     private GameLogic gameLogic;
     private int currentRound = 0;
 
+    // synchronized 대신 사용 (가상 스레드가 블로킹 전송 중 캐리어 스레드를 고정하지 않도록)
+    private final ReentrantLock lock = new ReentrantLock();
+
     public HiddenObjectServer() {
         try {
             this.gameLogic = new GameLogic();
@@ -30,23 +37,35 @@ public class HiddenObjectServer {
             e.printStackTrace();
             System.exit(1);
         }
+        try {
+            this.profiles = ProfileStore.open();
+            Runtime.getRuntime().addShutdownHook(new Thread(profiles::close, "profile-close"));
+        } catch (IOException e) {
+            System.out.println("[서버] 치명적 오류: 프로필 저장소를 열 수 없습니다! " + e.getMessage());
+            System.exit(1);
+        }
     }
 
-    public void run() {
+    // virtualThreads: true면 연결마다 가상 스레드 사용
+    public void run(boolean virtualThreads) {
         try {
             listener = new ServerSocket(PORT);
             System.out.println("━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
             System.out.println("✅ [서버] 숨은 그림 찾기 서버 시작!");
             System.out.println("✅ [서버] 포트: " + PORT);
+            System.out.println("✅ [서버] 실행 방식: " + (virtualThreads ? "가상 스레드" : "플랫폼 스레드"));
             System.out.println("✅ [서버] 클라이언트 연결 대기 중...");
             System.out.println("━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
 
+            Thread.Builder threadBuilder = virtualThreads
+                    ? Thread.ofVirtual().name("client-", 0)
+                    : Thread.ofPlatform().name("client-", 0);
+
             while (true) {
                 Socket socket = listener.accept();
                 System.out.println("🔗 [서버] 새 클라이언트 접속! IP: " + socket.getInetAddress());
 
-                ClientHandler clientHandler = new ClientHandler(socket);
-                clientHandler.start();
+                threadBuilder.start(new ClientHandler(socket));
             }
 
         } catch (IOException e) {
@@ -62,9 +81,10 @@ public class HiddenObjectServer {
     }
 
     // ================= 클라이언트 핸들러 =================
-    private class ClientHandler extends Thread {
+    private class ClientHandler implements Runnable {
         private final Socket socket;
-        private ObjectOutputStream out;
+        private OutputStream rawOut;      // ObjectOutputStream 아래 원본 스트림 (공유 바이트 전송용)
+        private ResettingObjectOutputStream out; // 주기적 reset으로 핸들 테이블 크기 제한
         private ObjectInputStream in;
         private String playerName;
         private String difficulty;
@@ -75,7 +95,9 @@ public class HiddenObjectServer {
 
         public void run() {
             try {
-                out = new ObjectOutputStream(socket.getOutputStream());
+                rawOut = new BufferedOutputStream(socket.getOutputStream());
+                out = new ResettingObjectOutputStream(rawOut);
+                out.flush();
                 in = new ObjectInputStream(socket.getInputStream());
 
                 GamePacket firstPacket = (GamePacket) in.readObject();
@@ -111,8 +133,8 @@ public class HiddenObjectServer {
         // 빠른 마이페이지 조회 (JOIN 불필요)
         private void handleMyPageQuick(GamePacket p) {
             String name = p.getSender();
-            int exp = expMap.getOrDefault(name, 0);
-            int level = exp / 50 + 1;
+            int exp = profiles.getExp(name);
+            int level = ProfileStore.levelOf(exp);
             
             System.out.println("[서버] 마이페이지 조회: " + name + " (exp=" + exp + ", lv=" + level + ")");
             
@@ -125,8 +147,19 @@ public class HiddenObjectServer {
 
         public void sendPacket(GamePacket packet) {
             try {
-                out.writeObject(packet);
+                out.writePacket(packet);
+            } catch (IOException e) {
+                System.out.println("[서버] " + playerName + "에게 패킷 전송 실패: " + e.getMessage());
+            }
+        }
+
+        // 브로드캐스트용: 한 번 직렬화된 바이트를 그대로 전송
+        public void sendPacket(EncodedPacket packet) {
+            try {
                 out.flush();
+                packet.writeTo(rawOut);
+                rawOut.flush();
+                out.requestReset(); // 상대 쪽 핸들 테이블은 공유 바이트의 TC_RESET으로 이미 비워짐
             } catch (IOException e) {
                 System.out.println("[서버] " + playerName + "에게 패킷 전송 실패: " + e.getMessage());
             }
@@ -150,123 +183,155 @@ public class HiddenObjectServer {
     }
 
     // ================= 서버 메인 로직 =================
-    private synchronized void handleJoin(ClientHandler handler, String difficulty) {
-        // 중복 닉네임 체크
-        if (clients.containsKey(handler.playerName)) {
-            System.out.println("[서버] 중복 닉네임 거부: " + handler.playerName);
-            handler.sendPacket(new GamePacket(GamePacket.Type.MESSAGE, "SERVER",
-                    "[중복] 이미 사용 중인 닉네임입니다."));
-            try {
-                handler.socket.close();
-            } catch (IOException e) {
-                e.printStackTrace();
+    private void handleJoin(ClientHandler handler, String difficulty) {
+        lock.lock();
+        try {
+            // 중복 닉네임 체크
+            if (clients.containsKey(handler.playerName)) {
+                System.out.println("[서버] 중복 닉네임 거부: " + handler.playerName);
+                handler.sendPacket(new GamePacket(GamePacket.Type.MESSAGE, "SERVER",
+                        "[중복] 이미 사용 중인 닉네임입니다."));
+                try {
+                    handler.socket.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+                return;
             }
-            return;
-        }
         
-        clients.put(handler.playerName, handler);
-        scores.put(handler.playerName, 0);
-        expMap.putIfAbsent(handler.playerName, 0);
-
-        System.out.println("[서버] " + handler.playerName + " (난이도: " + difficulty + ") 입장.");
-
-        handler.sendPacket(new GamePacket(GamePacket.Type.MESSAGE, "SERVER",
-                handler.playerName + " 님 환영합니다!"));
-
-        broadcast(new GamePacket(GamePacket.Type.MESSAGE, "SERVER",
-                handler.playerName + " 님이 입장했습니다."));
+            clients.put(handler.playerName, handler);
+            scores.put(handler.playerName, 0);
 
-        broadcast(new GamePacket(GamePacket.Type.SCORE, getScoreboardString()));
-        broadcastPlayerCount();
+            System.out.println("[서버] " + handler.playerName + " (난이도: " + difficulty + ") 입장.");
 
-        if (currentRound == 0) {
-            startNewRound(difficulty);
-        } else {
-            handler.sendPacket(new GamePacket(GamePacket.Type.ROUND_START,
-                    currentRound,
-                    gameLogic.getImagePath(difficulty, currentRound),
-                    gameLogic.getOriginalAnswers(difficulty, currentRound),
-                    gameLogic.getOriginalDimension(difficulty, currentRound)));
+            handler.sendPacket(new GamePacket(GamePacket.Type.MESSAGE, "SERVER",
+                    handler.playerName + " 님 환영합니다!"));
+
+            broadcast(new GamePacket(GamePacket.Type.MESSAGE, "SERVER",
+                    handler.playerName + " 님이 입장했습니다."));
+
+            broadcast(new GamePacket(GamePacket.Type.SCORE, getScoreboardString()));
+            broadcastPlayerCount();
+
+            if (currentRound == 0) {
+                startNewRound(difficulty);
+            } else {
+                handler.sendPacket(new GamePacket(GamePacket.Type.ROUND_START,
+                        currentRound,
+                        gameLogic.getImagePath(difficulty, currentRound),
+                        gameLogic.getOriginalAnswers(difficulty, currentRound),
+                        gameLogic.getOriginalDimension(difficulty, currentRound)));
+            }
+        } finally {
+            lock.unlock();
         }
     }
 
-    private synchronized void handlePacket(ClientHandler handler, GamePacket packet) {
-        String difficulty = handler.difficulty;
-
-        switch (packet.getType()) {
-            case CLICK:
-                int answerIndex = packet.getAnswerIndex();
-                System.out.println("[서버] " + handler.playerName + " 클릭: " + answerIndex + "번");
-
-                boolean isCorrect = gameLogic.checkAnswer(difficulty, currentRound, answerIndex);
-
-                String resultMsg;
-                if (isCorrect) {
-                    resultMsg = "정답!";
-                    scores.put(handler.playerName, scores.get(handler.playerName) + 10);
-                    expMap.put(handler.playerName, expMap.getOrDefault(handler.playerName, 0) + 10);
-                } else {
-                    resultMsg = "오답 (또는 이미 찾음)!";
-                    scores.put(handler.playerName, scores.get(handler.playerName) - 5);
-                }
-
-                broadcast(new GamePacket(GamePacket.Type.RESULT,
-                        handler.playerName, answerIndex, isCorrect, resultMsg));
-
-                broadcast(new GamePacket(GamePacket.Type.SCORE, getScoreboardString()));
-
-                if (isCorrect && gameLogic.areAllFound(difficulty, currentRound)) {
-                    System.out.println("[서버] " + currentRound + "라운드 클리어!");
-                    broadcast(new GamePacket(GamePacket.Type.TIMER_END, "모든 정답 완료"));
-                    broadcast(new GamePacket(GamePacket.Type.GAME_OVER, "🎯 라운드 클리어!"));
-                    // 연결은 유지하고 클라이언트가 메뉴로 돌아감
-                }
-                break;
-
-            case MESSAGE:
-                System.out.println("[서버] " + packet.getSender() + " 메시지: " + packet.getMessage());
-                broadcast(packet);
-                break;
-
-            case MYPAGE_REQUEST:
-                int exp = expMap.getOrDefault(handler.playerName, 0);
-                int level = exp / 50 + 1;
-                handler.sendPacket(new GamePacket(GamePacket.Type.MYPAGE_DATA,
-                        "SERVER", exp, level, true));
-                break;
-
-            default:
-                System.out.println("[서버] 알 수 없는 패킷 타입: " + packet.getType());
-                break;
+    private void handlePacket(ClientHandler handler, GamePacket packet) {
+        lock.lock();
+        try {
+            String difficulty = handler.difficulty;
+
+            switch (packet.getType()) {
+                case CLICK:
+                    int answerIndex = packet.getAnswerIndex();
+                    System.out.println("[서버] " + handler.playerName + " 클릭: " + answerIndex + "번");
+
+                    boolean isCorrect = gameLogic.checkAnswer(difficulty, currentRound, answerIndex);
+
+                    String resultMsg;
+                    if (isCorrect) {
+                        resultMsg = "정답!";
+                        scores.put(handler.playerName, scores.get(handler.playerName) + 10);
+                        profiles.addExp(handler.playerName, 10); // 메모리만 (디스크 I/O 없음)
+                    } else {
+                        resultMsg = "오답 (또는 이미 찾음)!";
+                        scores.put(handler.playerName, scores.get(handler.playerName) - 5);
+                    }
+
+                    broadcast(new GamePacket(GamePacket.Type.RESULT,
+                            handler.playerName, answerIndex, isCorrect, resultMsg));
+
+                    broadcast(new GamePacket(GamePacket.Type.SCORE, getScoreboardString()));
+
+                    if (isCorrect && gameLogic.areAllFound(difficulty, currentRound)) {
+                        System.out.println("[서버] " + currentRound + "라운드 클리어!");
+                        broadcast(new GamePacket(GamePacket.Type.TIMER_END, "모든 정답 완료"));
+                        broadcast(new GamePacket(GamePacket.Type.GAME_OVER, "🎯 라운드 클리어!"));
+                        // 연결은 유지하고 클라이언트가 메뉴로 돌아감
+                    }
+                    break;
+
+                case MESSAGE:
+                    System.out.println("[서버] " + packet.getSender() + " 메시지: " + packet.getMessage());
+                    broadcast(packet);
+                    break;
+
+                case MYPAGE_REQUEST:
+                    int exp = profiles.getExp(handler.playerName);
+                    int level = ProfileStore.levelOf(exp);
+                    handler.sendPacket(new GamePacket(GamePacket.Type.MYPAGE_DATA,
+                            "SERVER", exp, level, true));
+                    break;
+
+                default:
+                    System.out.println("[서버] 알 수 없는 패킷 타입: " + packet.getType());
+                    break;
+            }
+        } finally {
+            lock.unlock();
         }
     }
 
-    private synchronized void startNewRound(String difficulty) {
-        currentRound++;
-        System.out.println("[서버] " + currentRound + " 라운드 시작 (" + difficulty + ")");
+    private void startNewRound(String difficulty) {
+        lock.lock();
+        try {
+            currentRound++;
+            System.out.println("[서버] " + currentRound + " 라운드 시작 (" + difficulty + ")");
 
-        gameLogic.loadRound(difficulty, currentRound);
+            gameLogic.loadRound(difficulty, currentRound);
 
-        broadcast(new GamePacket(GamePacket.Type.ROUND_START,
-                currentRound,
-                gameLogic.getImagePath(difficulty, currentRound),
-                gameLogic.getOriginalAnswers(difficulty, currentRound),
-                gameLogic.getOriginalDimension(difficulty, currentRound)));
+            broadcast(new GamePacket(GamePacket.Type.ROUND_START,
+                    currentRound,
+                    gameLogic.getImagePath(difficulty, currentRound),
+                    gameLogic.getOriginalAnswers(difficulty, currentRound),
+                    gameLogic.getOriginalDimension(difficulty, currentRound)));
+        } finally {
+            lock.unlock();
+        }
     }
 
-    private synchronized void broadcast(GamePacket packet) {
-        for (ClientHandler handler : clients.values()) {
-            handler.sendPacket(packet);
+    // 패킷은 한 번만 직렬화하고 모든 클라이언트에 같은 바이트를 보낸다
+    private void broadcast(GamePacket packet) {
+        lock.lock();
+        try {
+            EncodedPacket encoded;
+            try {
+                encoded = new EncodedPacket(packet);
+            } catch (IOException e) {
+                System.out.println("[서버] 패킷 직렬화 실패: " + e.getMessage());
+                return;
+            }
+            for (ClientHandler handler : clients.values()) {
+                handler.sendPacket(encoded);
+            }
+        } finally {
+            lock.unlock();
         }
     }
 
-    private synchronized String getScoreboardString() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("--- 점수판 ---\n");
-        for (Map.Entry<String, Integer> entry : scores.entrySet()) {
-            sb.append(entry.getKey()).append(" : ").append(entry.getValue()).append("점\n");
+    private String getScoreboardString() {
+        lock.lock();
+        try {
+            StringBuilder sb = new StringBuilder();
+            sb.append("--- 점수판 ---\n");
+            for (Map.Entry<String, Integer> entry : scores.entrySet()) {
+                sb.append(entry.getKey()).append(" : ").append(entry.getValue()).append("점\n");
+            }
+            return sb.toString();
+        } finally {
+            lock.unlock();
         }
-        return sb.toString();
     }
 
     private void broadcastPlayerCount() {
@@ -274,7 +339,9 @@ public class HiddenObjectServer {
         broadcast(new GamePacket(GamePacket.Type.PLAYER_COUNT, "현재 접속자 수: " + count + "명"));
     }
 
+    // 실행 인자 "virtual"을 주면 가상 스레드 모드
     public static void main(String[] args) {
-        new HiddenObjectServer().run();
+        boolean virtualThreads = args.length > 0 && args[0].equals("virtual");
+        new HiddenObjectServer().run(virtualThreads);
     }
 }
\ No newline at end of file
@@ -0,0 +1,353 @@
+package server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+// 플레이어 프로필(경험치) 저장소: 외부 DB 없이 '스냅샷 + 추가 전용 로그' 두 파일로 재시작 후에도 유지
+// 클릭 처리 중에는 메모리의 맵만 바꾸고 이름을 '변경됨'으로 표시한다 (디스크 I/O 없음).
+// profile-writer 스레드가 FLUSH_MILLIS마다 바뀐 플레이어의 현재 값을 한 묶음으로 로그에 붙여 쓴다.
+// 로그에는 증가분이 아니라 그 시점의 값을 쓰므로 같은 기록을 두 번 읽어도 결과가 같고, 클릭 10번이 기록 1건이 된다.
+//
+// 파일 (디렉터리: profile.dir, 기본 profiles):
+//   profiles.snap     : [MAGIC][VERSION][다음 로그 번호 long][개수 int][(이름 UTF, exp int) ...][CRC32 int]
+//   profiles.<번호>.log : 묶음 반복 [길이 int][CRC32 int][(이름 UTF, exp int) ...]
+// 복구: 스냅샷을 읽고, 스냅샷이 가리키는 번호 이상의 로그를 순서대로 다시 적용한다.
+//   쓰다가 끊긴 마지막 묶음(길이 부족, CRC 불일치)은 버리고 그 위치에서 로그를 자른다.
+// 압축: 로그가 COMPACT_BYTES를 넘으면 새 번호의 로그로 바꾼 뒤 맵 전체를 임시 파일에 쓰고 이름을 바꿔(원자적) 스냅샷을 교체,
+//   이전 로그를 지운다. 어느 단계에서 멈춰도 복구 결과는 같다.
+// 서버가 죽으면 마지막 FLUSH_MILLIS 동안의 경험치는 잃을 수 있다 (정상 종료 시에는 close에서 모두 기록).
+final class ProfileStore implements Closeable {
+
+    static final long FLUSH_MILLIS = Long.getLong("profile.flushMillis", 1000);
+    static final long COMPACT_BYTES = Long.getLong("profile.compactBytes", 8L * 1024 * 1024);
+    static final boolean SYNC = !Boolean.getBoolean("profile.noSync"); // 묶음마다 fsync
+
+    private static final int MAGIC = 0x50524F46; // "PROF"
+    private static final int VERSION = 1;
+    private static final String SNAPSHOT = "profiles.snap";
+    private static final int IO_BUFFER = 64 * 1024;
+
+    private final Path dir;
+    private final Map<String, Integer> exp;
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet(); // 아직 로그에 쓰지 않은 플레이어
+
+    // 아래는 writer 스레드와 close만 사용 (ioLock)
+    private final ReentrantLock ioLock = new ReentrantLock();
+    private final FileChannel lockChannel;
+    private final FileLock dirLock;
+    private FileChannel log;
+    private long logGen;
+    private boolean closed = false;
+    private final ByteArrayOutputStream batch = new ByteArrayOutputStream(IO_BUFFER);
+
+    private final ScheduledExecutorService writer;
+
+    // 지표
+    private long flushedBatches;
+    private long flushedRecords;
+    private long compactions;
+
+    // 디렉터리를 잠그고 복구한 뒤 writer 스레드 시작
+    ProfileStore(Path dir) throws IOException {
+        this.dir = dir;
+        Files.createDirectories(dir);
+        lockChannel = FileChannel.open(dir.resolve("profiles.lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        dirLock = lockChannel.tryLock();
+        if (dirLock == null) {
+            lockChannel.close();
+            throw new IOException("프로필 디렉터리를 다른 서버가 사용 중입니다: " + dir.toAbsolutePath());
+        }
+
+        long start = System.nanoTime();
+        Recovery recovery = new Recovery();
+        exp = recovery.run();
+        System.out.println("[서버] 프로필 " + exp.size() + "개 복구 (" + (System.nanoTime() - start) / 1_000_000 + "ms, 스냅샷 "
+                + recovery.snapshotCount + "개 + 로그 " + recovery.logRecords + "건"
+                + (recovery.tornBytes > 0 ? ", 끊긴 기록 " + recovery.tornBytes + "바이트 버림" : "") + ")");
+
+        writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "profile-writer");
+            t.setDaemon(true);
+            return t;
+        });
+        writer.scheduleWithFixedDelay(this::flushQuietly, FLUSH_MILLIS, FLUSH_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    static ProfileStore open() throws IOException {
+        return new ProfileStore(Paths.get(System.getProperty("profile.dir", "profiles")));
+    }
+
+    static int levelOf(int exp) {
+        return exp / 50 + 1;
+    }
+
+    int getExp(String playerName) {
+        return exp.getOrDefault(playerName, 0);
+    }
+
+    int size() {
+        return exp.size();
+    }
+
+    // 클릭 처리용: 메모리만 바꾸고 바로 반환 (기록은 writer 스레드가 묶어서)
+    // 맵을 먼저 바꾸고 표시하므로, writer가 표시를 지운 뒤 읽는 값에는 이 증가분이 들어 있다.
+    int addExp(String playerName, int delta) {
+        int value = exp.merge(playerName, delta, Integer::sum);
+        dirty.add(playerName);
+        return value;
+    }
+
+    // 남은 변경분을 모두 쓰고 닫음 (종료 훅에서 호출)
+    @Override
+    public void close() {
+        writer.shutdown();
+        ioLock.lock();
+        try {
+            if (closed) return;
+            flush();
+            closed = true;
+            log.close();
+            dirLock.release();
+            lockChannel.close();
+            System.out.println("[서버] 프로필 저장소 닫음: " + describe());
+        } catch (IOException e) {
+            System.out.println("[서버] 프로필 저장소 닫기 실패: " + e.getMessage());
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    String describe() {
+        return "프로필 " + exp.size() + "개, 로그 묶음 " + flushedBatches + "개 / 기록 " + flushedRecords + "건, 압축 " + compactions + "회";
+    }
+
+    private void flushQuietly() {
+        ioLock.lock();
+        try {
+            if (closed) return;
+            flush();
+            if (log.size() >= COMPACT_BYTES) {
+                compact();
+            }
+        } catch (IOException e) {
+            System.out.println("[서버] 프로필 저장 실패 (다음 주기에 다시 시도): " + e.getMessage());
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    // 바뀐 플레이어의 현재 값을 한 묶음으로 로그에 추가
+    private void flush() throws IOException {
+        if (dirty.isEmpty()) return;
+        batch.reset();
+        DataOutputStream out = new DataOutputStream(batch);
+        out.writeInt(0); // 길이, CRC 자리
+        out.writeInt(0);
+        List<String> written = new ArrayList<>();
+        for (Iterator<String> it = dirty.iterator(); it.hasNext(); ) {
+            String playerName = it.next();
+            it.remove(); // 표시를 먼저 지우고 값을 읽는다 (그 사이 증가분은 다시 표시됨)
+            out.writeUTF(playerName);
+            out.writeInt(exp.getOrDefault(playerName, 0));
+            written.add(playerName);
+        }
+        out.flush();
+
+        ByteBuffer buf = ByteBuffer.wrap(batch.toByteArray());
+        int length = buf.remaining() - 8;
+        CRC32 crc = new CRC32();
+        crc.update(buf.array(), 8, length);
+        buf.putInt(0, length);
+        buf.putInt(4, (int) crc.getValue());
+        long end = log.size();
+        try {
+            while (buf.hasRemaining()) {
+                log.write(buf);
+            }
+            if (SYNC) log.force(false);
+        } catch (IOException e) {
+            // 반쯤 쓴 묶음이 남으면 복구가 거기서 멈춰 뒤의 묶음까지 버리므로 잘라 내고, 다음 주기에 다시 쓴다
+            dirty.addAll(written);
+            try {
+                log.truncate(end);
+            } catch (IOException ignored) {
+            }
+            throw e;
+        }
+        flushedBatches++;
+        flushedRecords += written.size();
+    }
+
+    // 새 로그로 바꾼 뒤 맵 전체를 스냅샷으로 쓰고 이전 로그를 지운다
+    // (이 사이 바뀐 값은 변경 표시가 남아 있으므로 새 로그에 다시 기록된다)
+    private void compact() throws IOException {
+        long start = System.nanoTime();
+        long oldGen = logGen;
+        long oldBytes = log.size();
+        log.close();
+        openLog(oldGen + 1);
+
+        Path tmp = dir.resolve(SNAPSHOT + ".tmp");
+        int count = 0;
+        try (OutputStream file = Files.newOutputStream(tmp)) {
+            CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(file, IO_BUFFER), new CRC32());
+            DataOutputStream out = new DataOutputStream(checked);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(logGen);
+            List<Map.Entry<String, Integer>> entries = new ArrayList<>(exp.entrySet()); // 개수를 먼저 써야 하므로 고정
+            out.writeInt(entries.size());
+            for (Map.Entry<String, Integer> e : entries) {
+                out.writeUTF(e.getKey());
+                out.writeInt(e.getValue());
+            }
+            out.flush();
+            out.writeInt((int) checked.getChecksum().getValue());
+            out.flush();
+            count = entries.size();
+        }
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+            ch.force(true);
+        }
+        Files.move(tmp, dir.resolve(SNAPSHOT), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.deleteIfExists(logPath(oldGen));
+        compactions++;
+        System.out.println("[서버] 프로필 스냅샷 " + count + "개 기록, 로그 " + oldBytes / 1024 + "KB 정리 ("
+                + (System.nanoTime() - start) / 1_000_000 + "ms)");
+    }
+
+    private Path logPath(long gen) {
+        return dir.resolve("profiles." + gen + ".log");
+    }
+
+    private void openLog(long gen) throws IOException {
+        logGen = gen;
+        log = FileChannel.open(logPath(gen), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    // --- 복구 (생성자에서 한 번) ---
+    private final class Recovery {
+        int snapshotCount;
+        long logRecords;
+        long tornBytes;
+
+        Map<String, Integer> run() throws IOException {
+            Files.deleteIfExists(dir.resolve(SNAPSHOT + ".tmp")); // 압축 도중 멈춘 흔적
+            Map<String, Integer> map;
+            long firstGen = 0;
+            Path snapshot = dir.resolve(SNAPSHOT);
+            if (Files.exists(snapshot)) {
+                try (InputStream file = Files.newInputStream(snapshot)) {
+                    CheckedInputStream checked = new CheckedInputStream(new BufferedInputStream(file, IO_BUFFER), new CRC32());
+                    DataInputStream in = new DataInputStream(checked);
+                    if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                        throw new IOException("프로필 스냅샷 형식이 다릅니다: " + snapshot);
+                    }
+                    firstGen = in.readLong();
+                    int count = in.readInt();
+                    map = new ConcurrentHashMap<>(Math.max(16, count * 4 / 3 + 1));
+                    for (int i = 0; i < count; i++) {
+                        map.put(in.readUTF(), in.readInt());
+                    }
+                    int expected = (int) checked.getChecksum().getValue();
+                    if (in.readInt() != expected) {
+                        // 스냅샷은 이름을 바꿔 통째로 교체하므로 여기서 깨졌다면 디스크 문제: 조용히 비우지 않고 멈춘다
+                        throw new IOException("프로필 스냅샷 CRC 불일치: " + snapshot);
+                    }
+                    snapshotCount = count;
+                }
+            } else {
+                map = new ConcurrentHashMap<>();
+            }
+
+            List<Long> gens = new ArrayList<>();
+            try (DirectoryStream<Path> logs = Files.newDirectoryStream(dir, "profiles.*.log")) {
+                for (Path p : logs) {
+                    String name = p.getFileName().toString();
+                    try {
+                        gens.add(Long.parseLong(name.substring("profiles.".length(), name.length() - ".log".length())));
+                    } catch (NumberFormatException e) {
+                        // 다른 파일
+                    }
+                }
+            }
+            gens.sort(null);
+            long lastGen = firstGen;
+            for (long gen : gens) {
+                if (gen < firstGen) {
+                    Files.deleteIfExists(logPath(gen)); // 이미 스냅샷에 들어간 로그 (압축 마지막 단계 전에 멈춤)
+                    continue;
+                }
+                replay(logPath(gen), map);
+                lastGen = gen;
+            }
+            openLog(lastGen);
+            return map;
+        }
+
+        // 묶음 단위로 적용. 끝이 잘렸거나 CRC가 틀린 묶음부터는 버리고 파일을 그 위치로 자른다
+        private void replay(Path path, Map<String, Integer> map) throws IOException {
+            long valid = 0;
+            long size = Files.size(path);
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), IO_BUFFER))) {
+                byte[] payload = new byte[0];
+                while (valid + 8 <= size) {
+                    int length = in.readInt();
+                    int crc = in.readInt();
+                    if (length < 0 || valid + 8 + length > size) break;
+                    if (payload.length < length) payload = new byte[length];
+                    in.readFully(payload, 0, length);
+                    CRC32 check = new CRC32();
+                    check.update(payload, 0, length);
+                    if ((int) check.getValue() != crc) break;
+
+                    DataInputStream records = new DataInputStream(new ByteArrayInputStream(payload, 0, length));
+                    while (records.available() > 0) {
+                        map.put(records.readUTF(), records.readInt());
+                        logRecords++;
+                    }
+                    valid += 8 + length;
+                }
+            } catch (EOFException e) {
+                // 길이 검사로 막히지만 혹시 모를 잘린 묶음
+            }
+            if (valid < size) {
+                tornBytes += size - valid;
+                try (FileChannel ch = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                    ch.truncate(valid);
+                }
+            }
+        }
+    }
+}
@@ -1,23 +1,20 @@
 package client;
 
 import model.GamePacket;
+import model.PacketConnection;
 import javax.swing.*;
 import java.awt.*;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.net.Socket;
 import java.util.Map;
 
 // CardLayout을 사용하여 HomePanel(접속)과 WatingRoom(대기방)을 관리
 public class GameLauncher extends JFrame {
 
     // --- 통신 관련 ---
-    private Socket socket;
-    private ObjectOutputStream out;
-    private ObjectInputStream in;
+    private PacketConnection connection;
     private String playerName;
     private String selectedDifficulty; 
+    private String sessionToken; // 서버가 JOIN 뒤 발급 (게임 중 재접속용)
 
     // --- UI 관련 ---
     private CardLayout cardLayout;
@@ -53,13 +50,11 @@ public class GameLauncher extends JFrame {
     }
 
     // 대기방(Lobby) 카드로 전환
-    public void switchToLobby(Socket socket, ObjectOutputStream out, ObjectInputStream in, String playerName) {
-        this.socket = socket;
-        this.out = out;
-        this.in = in;
+    public void switchToLobby(PacketConnection connection, String playerName) {
+        this.connection = connection;
         this.playerName = playerName; 
         
-        waitingRoom.setConnection(out, playerName);
+        waitingRoom.setConnection(connection, playerName);
         
         // 서버 리스너 스레드 시작
         Thread listenerThread = new Thread(this::listenFromServer);
@@ -75,9 +70,12 @@ public class GameLauncher extends JFrame {
     private void listenFromServer() {
         try {
             while (true) {
-                Object obj = in.readObject();
-                if (!(obj instanceof GamePacket)) continue;
-                GamePacket p = (GamePacket) obj;
+                GamePacket p = connection.readPacket();
+                if (p.getType() == GamePacket.Type.PING) {
+                    connection.enableHeartbeatTimeout(); // 서버가 조용해지면 끊김으로 처리
+                    sendPacket(new GamePacket(GamePacket.Type.PONG, playerName, p.getServerTime(), System.currentTimeMillis()));
+                    continue;
+                }
                 
                 // 패킷을 처리하도록 EDT에 넘김
                 SwingUtilities.invokeLater(() -> handlePacket(p));
@@ -108,12 +106,22 @@ public class GameLauncher extends JFrame {
             case LOBBY_UPDATE:
                 // "대기방 인원" 목록 갱신
             	waitingRoom.updateLobbyInfo(
+                    p.getRoomId(),
+                    p.getRoomName(),
                     p.getHostName(), 
                     p.getPlayerReadyStatus(), // Map<String, Boolean>
                     p.getDifficulty(),
                     p.getGameMode()
                 );
                 break;
+            case SESSION:
+                // 재접속용 토큰 (게임 창에 넘겨줌)
+                sessionToken = p.getSessionToken();
+                break;
+            case ROOM_LIST:
+                // 방 목록 (요청했거나 방에서 나왔을 때)
+                waitingRoom.showRoomList(p.getRooms());
+                break;
             case ROUND_START:
                 // 게임 시작 신호
                 System.out.println("GameLauncher: ROUND_START 수신! 게임 창을 엽니다.");
@@ -122,10 +130,11 @@ public class GameLauncher extends JFrame {
                 
                 // 2. HiddenObjectClientGUI에 '새로운 생성자'로 연결 정보 전달
                 new HiddenObjectClientGUI(
-                    socket, in, out, 
+                    connection, 
                     playerName, 
                     selectedDifficulty, // 대기방에서 선택한 난이도
-                    p // 서버가 보낸 ROUND_START 패킷 (정답 목록 포함)
+                    p, // 서버가 보낸 ROUND_START 패킷 (정답 목록 포함)
+                    sessionToken // 게임 중 연결이 끊기면 이 토큰으로 재접속
                 );
                 break;
             default:
@@ -149,10 +158,9 @@ public class GameLauncher extends JFrame {
     
     // 채팅/메시지 전송
     public void sendPacket(GamePacket packet) {
-        if (out != null) {
+        if (connection != null) {
             try {
-                out.writeObject(packet);
-                out.flush();
+                connection.writePacket(packet);
             } catch (IOException e) {
                 e.printStackTrace();
                 waitingRoom.appendChat("[오류] 메시지 전송 실패: " + e.getMessage() + "\n");
@@ -1,25 +1,35 @@
 package client;
 
 import model.GamePacket;
+import model.PacketConnection;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.awt.geom.Ellipse2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator; 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 
 // 실제 '게임 화면'을 담당, GameLauncher에 의해 실행됨.
 public class HiddenObjectClientGUI extends JFrame {
 
     // --- 통신 관련 ---
-    private Socket socket;
-    private ObjectOutputStream out;
-    private ObjectInputStream in;
+    private volatile PacketConnection connection; // 재접속하면 리스너 스레드가 바꿔 끼움
     private final String playerName;
     private final String difficulty;
 
@@ -33,17 +43,50 @@ public class HiddenObjectClientGUI extends JFrame {
     private GameBoardPanel gameBoardPanel;
 
     // --- 게임 상태 ---
+    private static final int DEFAULT_ROUND_MILLIS = 120_000; // 제한 시간을 보내지 않는 이전 버전 서버용
     private int timeLeft = 120;
+    private int roundLimitMillis = DEFAULT_ROUND_MILLIS; // ROUND_START의 제한 시간 (이미지가 보일 때부터 셈)
+    private long roundDeadline; // 이 시각(로컬 ms)까지 표시 (마감 판정은 서버가 TIMER_END로)
     private Timer swingTimer;
     private boolean isGameActive = false;
+    private final Map<String, Integer> scoreBoard = new LinkedHashMap<>(); // SCORE_UPDATE로 갱신하는 로컬 점수판
+    private final Map<String, Integer> latencyBoard = new HashMap<>();     // 플레이어별 RTT (ms)
 
-    public HiddenObjectClientGUI(Socket socket, ObjectInputStream in, ObjectOutputStream out, 
+    // 라운드 이미지 디코딩 (EDT를 막지 않도록)
+    private final ExecutorService imageDecoder = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "image-decoder");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // --- 이미지 받기 ---
+    private static final int IMAGE_WINDOW = 256 * 1024;     // 한 번에 요청할 바이트 (서버 송신 대기열을 채우지 않도록)
+    private static final int MAX_IMAGE_SIZE = 64 * 1024 * 1024;
+    private final ImageCache imageCache = new ImageCache(); // 디코딩 스레드에서만 사용 (파일 읽기/쓰기, 해시 계산)
+    private int imageSeq; // 캐시 확인/저장 결과가 취소된 요청 것인지 구분
+    private GamePacket pendingRound; // 이미지를 찾거나 받는 중인 ROUND_START (또는 ROUND_PREFETCH)
+    private boolean downloadIsPrefetch;
+    private GamePacket queuedPrefetch; // 이번 라운드 이미지를 다 받은 뒤 받을 다음 라운드
+    private byte[] download;
+    private int downloadReceived;
+    private int downloadRequestedUpTo;
+
+    // --- 재접속 (연결이 끊기면 같은 서버에 세션 토큰으로 다시 JOIN, 서버는 정해진 시간 동안 자리를 남겨 둠) ---
+    private static final int RESUME_ATTEMPTS = Integer.getInteger("client.resumeAttempts", 20);
+    private static final int RESUME_INTERVAL_MILLIS = Integer.getInteger("client.resumeIntervalMillis", 1000);
+    private volatile String sessionToken; // 서버가 SESSION으로 발급 (없으면 재접속하지 않음)
+
+    public HiddenObjectClientGUI(PacketConnection connection, 
                                  String playerName, String difficulty, GamePacket roundStartPacket) {
-        this.socket = socket;
-        this.in = in;
-        this.out = out;
+        this(connection, playerName, difficulty, roundStartPacket, null);
+    }
+
+    public HiddenObjectClientGUI(PacketConnection connection, 
+                                 String playerName, String difficulty, GamePacket roundStartPacket, String sessionToken) {
+        this.connection = connection;
         this.playerName = playerName;
         this.difficulty = difficulty;
+        this.sessionToken = sessionToken;
 
         setTitle("숨은 그림 찾기 (플레이어: " + playerName + ")");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -171,9 +214,23 @@ public class HiddenObjectClientGUI extends JFrame {
     private void listenFromServer() {
         try {
             while (true) {
-                Object obj = in.readObject();
-                if (!(obj instanceof GamePacket)) continue;
-                GamePacket p = (GamePacket) obj;
+                GamePacket p;
+                try {
+                    p = connection.readPacket();
+                } catch (IOException e) {
+                    if (!resumeSession()) throw e;
+                    continue;
+                }
+                if (p.getType() == GamePacket.Type.SESSION) {
+                    sessionToken = p.getSessionToken();
+                    continue;
+                }
+                if (p.getType() == GamePacket.Type.PING) {
+                    // EDT를 거치지 않고 바로 답해야 RTT에 화면 처리 시간이 섞이지 않음
+                    connection.enableHeartbeatTimeout();
+                    sendPacket(new GamePacket(GamePacket.Type.PONG, playerName, p.getServerTime(), System.currentTimeMillis()));
+                    continue;
+                }
                 SwingUtilities.invokeLater(() -> handlePacket(p));
             }
         } catch (Exception e) {
@@ -185,11 +242,63 @@ public class HiddenObjectClientGUI extends JFrame {
         }
     }
     
+    // 끊긴 연결 대신 같은 서버에 다시 접속해 진행 중인 게임으로 돌아감 (리스너 스레드)
+    // 첫 응답이 SESSION이면 성공. 이후 서버가 보내는 ROUND_START(남은 시간, 찾은 정답 포함)와 전체 점수판으로 화면을 다시 맞춘다.
+    // 서버가 거절하면(대기 시간이 지남) 더 시도하지 않는다.
+    private boolean resumeSession() {
+        String token = sessionToken;
+        if (token == null || RESUME_ATTEMPTS <= 0) {
+            return false;
+        }
+        Socket lost = connection.getSocket();
+        String host = lost.getInetAddress().getHostAddress();
+        int port = lost.getPort();
+        try {
+            connection.close();
+        } catch (IOException e) {
+            // 이미 끊긴 연결
+        }
+        SwingUtilities.invokeLater(() -> appendStatus("[시스템] 서버 연결이 끊어졌습니다. 다시 접속하는 중...\n"));
+
+        for (int attempt = 1; attempt <= RESUME_ATTEMPTS; attempt++) {
+            PacketConnection next = null;
+            try {
+                Thread.sleep(RESUME_INTERVAL_MILLIS);
+                next = new PacketConnection(new Socket(host, port));
+                next.writePacket(new GamePacket(GamePacket.Type.JOIN, playerName, "LOBBY", true, token));
+                GamePacket first = next.readPacket();
+                if (first.getType() != GamePacket.Type.SESSION) {
+                    String reason = first.getMessage();
+                    SwingUtilities.invokeLater(() -> appendStatus("[시스템] 재접속 실패: " + reason + "\n"));
+                    next.close();
+                    return false;
+                }
+                connection = next;
+                int attempts = attempt;
+                SwingUtilities.invokeLater(() -> {
+                    cancelDownload(); // 끊기기 전에 받던 이미지는 새 연결로 다시 요청
+                    appendStatus("[시스템] 다시 접속했습니다. (" + attempts + "번째 시도)\n");
+                });
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } catch (IOException e) {
+                if (next != null) {
+                    try {
+                        next.close();
+                    } catch (IOException ignored) {
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
     private void sendPacket(GamePacket packet) {
         try {
-            if (out != null) {
-                out.writeObject(packet);
-                out.flush();
+            if (connection != null) {
+                connection.writePacket(packet);
             }
         } catch (IOException e) {
             appendStatus("[에러] 패킷 전송 실패: " + e.getMessage() + "\n");
@@ -212,23 +321,30 @@ public class HiddenObjectClientGUI extends JFrame {
         switch (p.getType()) {
             case ROUND_START:
                 roundLabel.setText("라운드 " + p.getRound());
+                // 남은 시간은 이미지가 처음 보일 때부터 센다 (서버 마감에는 이미지를 받는 동안의 여유가 더해져 있음)
+                roundLimitMillis = p.getTimeLimitMillis() > 0 ? p.getTimeLimitMillis() : DEFAULT_ROUND_MILLIS;
                 String imagePath = p.getMessage(); 
-                List<Rectangle> originalAnswers = p.getOriginalAnswers();
-                Dimension originalDimension = p.getOriginalDimension();
                 
-                if (imagePath != null && !imagePath.isEmpty() && originalAnswers != null && originalDimension != null) {
-                    gameBoardPanel.setRoundData(imagePath, originalAnswers, originalDimension);
-                    appendStatus("[시스템] 라운드 " + p.getRound() + " 시작!\n");
-                    isGameActive = true; 
+                if (imagePath != null && !imagePath.isEmpty() && p.getOriginalAnswers() != null && p.getOriginalDimension() != null) {
+                    prepareRoundImage(p); // 캐시에 있으면 바로, 없으면 서버에서 받은 뒤 시작
                 } else {
                     appendStatus("[시스템] " + p.getMessage() + "\n");
                 }
-                
-                gameBoardPanel.clearMarks();
-                startCountdownTimer(120);
+                break;
+
+            case IMAGE_CHUNK:
+                receiveImageChunk(p);
+                break;
+
+            case ROUND_PREFETCH:
+                prefetchRoundImage(p);
                 break;
 
             case RESULT:
+                if (p.getAnswerIndex() < 0 && p.getClickPoint() != null) {
+                    gameBoardPanel.addMissMark(p.getClickPoint()); // 서버 판정: 빗나감 (감점 없음)
+                    break;
+                }
                 gameBoardPanel.addMark(p.getAnswerIndex(), p.isCorrect());
                 if (p.getMessage() != null) {
                     appendStatus(p.getSender() + ": " + p.getMessage() + "\n");
@@ -237,6 +353,19 @@ public class HiddenObjectClientGUI extends JFrame {
             case SCORE:
                 scoreArea.setText(p.getMessage());
                 break;
+            case SCORE_UPDATE:
+                // 변경분만 반영 (전체 스냅샷이면 목록을 새로 채움)
+                if (p.isFullScores()) {
+                    scoreBoard.clear();
+                }
+                if (p.getScores() != null) {
+                    scoreBoard.putAll(p.getScores());
+                }
+                if (p.getLatencies() != null) {
+                    latencyBoard.putAll(p.getLatencies());
+                }
+                renderScores();
+                break;
             case MESSAGE:
                 // 인게임에서는 채팅창에만 표시
                 appendChat(p.getSender() + ": " + p.getMessage() + "\n");
@@ -271,6 +400,202 @@ public class HiddenObjectClientGUI extends JFrame {
         }
     }
     
+    // 라운드 이미지 준비: 해시가 없으면(서버에 이미지 없음) 로컬 경로, 캐시에 있으면 캐시 파일, 없으면 서버에 요청
+    private void prepareRoundImage(GamePacket p) {
+        String hash = p.getImageHash();
+        int size = p.getImageSize();
+        if (hash == null || size <= 0 || size > MAX_IMAGE_SIZE) {
+            cancelDownload();
+            startRound(p, p.getMessage());
+            return;
+        }
+        if (pendingRound != null && hash.equals(pendingRound.getImageHash())) {
+            // 미리 준비하던 이미지가 이번 라운드 것: 이어서 받고 끝나면 바로 시작
+            pendingRound = p;
+            downloadIsPrefetch = false;
+            if (download != null) appendStatus("[시스템] 이미지를 받는 중입니다...\n");
+            return;
+        }
+        cancelDownload();
+        lookupImage(p, false);
+    }
+
+    // 다음 라운드 안내: 이미지를 미리 받고(이번 라운드 이미지를 받는 중이면 그 뒤에) 디코딩해 둔다
+    private void prefetchRoundImage(GamePacket p) {
+        String hash = p.getImageHash();
+        int size = p.getImageSize();
+        if (hash == null || size <= 0 || size > MAX_IMAGE_SIZE) {
+            gameBoardPanel.prefetch(p.getMessage());
+            return;
+        }
+        if (pendingRound != null) {
+            if (!downloadIsPrefetch) {
+                queuedPrefetch = p; // 이번 라운드 이미지가 먼저
+            }
+            return;
+        }
+        lookupImage(p, true);
+    }
+
+    // 캐시와 미리 설치된 이미지는 디코딩 스레드에서 확인하고 (EDT에서 파일을 읽지 않도록), 없으면 서버에 요청
+    private void lookupImage(GamePacket p, boolean prefetch) {
+        pendingRound = p;
+        downloadIsPrefetch = prefetch;
+        int seq = ++imageSeq;
+        imageDecoder.execute(() -> {
+            Path cached = findLocalImage(p);
+            SwingUtilities.invokeLater(() -> {
+                if (seq != imageSeq) return; // 그 사이 취소됨
+                if (cached != null) {
+                    finishImage(cached);
+                    return;
+                }
+                if (!downloadIsPrefetch) {
+                    appendStatus("[시스템] 이미지를 받는 중입니다... (" + (pendingRound.getImageSize() / 1024) + "KB)\n");
+                }
+                startDownload();
+            });
+        });
+    }
+
+    // 캐시 또는 미리 설치된 같은 내용의 이미지 (없으면 null). 디코딩 스레드에서 호출
+    private Path findLocalImage(GamePacket p) {
+        Path cached = imageCache.get(p.getImageHash(), p.getImageSize());
+        return cached != null ? cached : adoptLocalImage(p.getMessage(), p.getImageHash(), p.getImageSize());
+    }
+
+    // 미리 설치된 이미지가 같은 내용이면 받지 않고 캐시에 넣는다
+    private Path adoptLocalImage(String path, String hash, int size) {
+        try {
+            Path local = Paths.get(path);
+            if (Files.isRegularFile(local) && Files.size(local) == size) {
+                return imageCache.put(hash, Files.readAllBytes(local)); // 해시가 다르면 null
+            }
+        } catch (IOException | RuntimeException e) {
+            System.out.println("클라이언트: 로컬 이미지 확인 실패: " + e.getMessage());
+        }
+        return null;
+    }
+
+    private void startDownload() {
+        download = new byte[pendingRound.getImageSize()];
+        downloadReceived = 0;
+        downloadRequestedUpTo = 0;
+        requestNextImageWindow();
+    }
+
+    // 받는 중인 조각은 해시가 달라 무시된다
+    private void cancelDownload() {
+        imageSeq++;
+        pendingRound = null;
+        download = null;
+        queuedPrefetch = null;
+    }
+
+    private void requestNextImageWindow() {
+        int length = Math.min(IMAGE_WINDOW, download.length - downloadReceived);
+        downloadRequestedUpTo = downloadReceived + length;
+        sendPacket(new GamePacket(GamePacket.Type.IMAGE_REQUEST, playerName,
+                pendingRound.getImageHash(), downloadReceived, length));
+    }
+
+    private void receiveImageChunk(GamePacket p) {
+        if (download == null || !pendingRound.getImageHash().equals(p.getImageHash())) {
+            return; // 지난 라운드의 조각 (또는 아직 캐시를 확인 중)
+        }
+        byte[] data = p.getImageData();
+        if (data == null || p.getImageOffset() != downloadReceived || downloadReceived + data.length > download.length) {
+            appendStatus("[에러] 이미지 조각 순서가 맞지 않습니다.\n");
+            cancelDownload();
+            return;
+        }
+        System.arraycopy(data, 0, download, downloadReceived, data.length);
+        downloadReceived += data.length;
+
+        if (downloadReceived < download.length) {
+            if (downloadReceived >= downloadRequestedUpTo) {
+                requestNextImageWindow();
+            }
+            return;
+        }
+
+        // 해시 확인과 캐시 저장은 디코딩 스레드에서. 끝날 때까지 pendingRound는 그대로 둔다
+        String hash = pendingRound.getImageHash();
+        byte[] image = download;
+        download = null;
+        int seq = imageSeq;
+        imageDecoder.execute(() -> {
+            Path file = null;
+            String error = null;
+            try {
+                file = imageCache.put(hash, image);
+                if (file == null) error = "받은 이미지가 손상되었습니다.";
+            } catch (IOException e) {
+                error = "이미지 저장 실패: " + e.getMessage();
+            }
+            Path saved = file;
+            String failure = error;
+            SwingUtilities.invokeLater(() -> {
+                if (seq != imageSeq) return; // 그 사이 취소됨 (캐시에는 남음)
+                if (failure != null) appendStatus("[에러] " + failure + "\n");
+                finishImage(saved);
+            });
+        });
+    }
+
+    // 이미지 준비 끝 (file이 null이면 실패): 라운드 시작 또는 미리 디코딩, 이어서 대기 중인 다음 라운드
+    private void finishImage(Path file) {
+        GamePacket round = pendingRound;
+        boolean prefetch = downloadIsPrefetch;
+        GamePacket next = queuedPrefetch;
+        pendingRound = null;
+        download = null;
+        queuedPrefetch = null;
+        if (file != null) {
+            if (prefetch) {
+                gameBoardPanel.prefetch(file.toString());
+            } else {
+                startRound(round, file.toString());
+            }
+        }
+        if (next != null) {
+            prefetchRoundImage(next);
+        }
+    }
+
+    // 이미지가 준비되면 라운드 시작
+    // (이미지를 받거나 디코딩하느라 늦어도 플레이 시간이 줄지 않도록 타이머는 이미지가 처음 보일 때 시작)
+    private void startRound(GamePacket p, String imageFile) {
+        isGameActive = false;
+        gameBoardPanel.setRoundData(imageFile, p.getOriginalAnswers(), p.getOriginalDimension(), () -> {
+            appendStatus("[시스템] 라운드 " + p.getRound() + " 시작!\n");
+            isGameActive = true; 
+            roundDeadline = System.currentTimeMillis() + roundLimitMillis;
+            startCountdownTimer();
+        });
+        gameBoardPanel.clearMarks();
+        if (p.getFoundBits() != null) {
+            // 재접속: 끊긴 사이 찾은 정답까지 표시
+            for (int i = 0; i < p.getOriginalAnswers().size(); i++) {
+                if (p.isFound(i)) gameBoardPanel.addMark(i, true);
+            }
+        }
+    }
+
+    // 로컬 점수판 -> 텍스트
+    private void renderScores() {
+        StringBuilder sb = new StringBuilder("--- 점수판 ---\n");
+        for (Map.Entry<String, Integer> entry : scoreBoard.entrySet()) {
+            sb.append(entry.getKey()).append(" : ").append(entry.getValue()).append("점");
+            Integer rtt = latencyBoard.get(entry.getKey());
+            if (rtt != null) {
+                sb.append(" (").append(rtt).append("ms)");
+            }
+            sb.append("\n");
+        }
+        scoreArea.setText(sb.toString());
+    }
+
     // 로그 출력
     private void appendStatus(String msg) {
         statusArea.append(msg);
@@ -281,23 +606,15 @@ public class HiddenObjectClientGUI extends JFrame {
         chatArea.setCaretPosition(chatArea.getDocument().getLength());
     }
 
-    // 타이머
-    private void startCountdownTimer(int seconds) {
+    // 타이머 (서버 마감까지 남은 시간을 보간해서 표시만 함. 0초가 되어도 TIMER_END를 받을 때까지 기다림)
+    private void startCountdownTimer() {
         if (swingTimer != null) swingTimer.stop();
         
-        timeLeft = seconds;
-        timerLabel.setText("타이머: " + timeLeft + "초");
-        timerLabel.setForeground(Color.BLACK);
+        updateTimerLabel();
         
-        swingTimer = new Timer(1000, e -> {
+        swingTimer = new Timer(200, e -> {
             if (isGameActive && timeLeft > 0) { 
-                timeLeft--;
-                timerLabel.setText("타이머: " + timeLeft + "초");
-                if (timeLeft <= 30) {
-                    int red = 255;
-                    int green = Math.max(0, 200 - (30 - timeLeft) * 7); 
-                    timerLabel.setForeground(new Color(red, green, 0));
-                }
+                updateTimerLabel();
                 gameBoardPanel.removeExpiredMarks();
                 if (timeLeft <= 0) {
                     ((Timer) e.getSource()).stop();
@@ -308,16 +625,42 @@ public class HiddenObjectClientGUI extends JFrame {
         });
         swingTimer.start();
     }
+
+    private void updateTimerLabel() {
+        long remaining = roundDeadline - System.currentTimeMillis();
+        timeLeft = (int) Math.max(0, (remaining + 999) / 1000);
+        timerLabel.setText("타이머: " + timeLeft + "초");
+        if (timeLeft <= 30) {
+            int red = 255;
+            int green = Math.max(0, 200 - (30 - timeLeft) * 7); 
+            timerLabel.setForeground(new Color(red, green, 0));
+        } else {
+            timerLabel.setForeground(Color.BLACK);
+        }
+    }
     
     // 게임 보드 패널
+    // 배경 이미지는 디코딩 스레드에서 읽는다. 솎아 읽은 미리보기를 먼저 보여 주고 원본이 준비되면 바꾼다.
+    // 불러올 때 한 번 절반씩 줄인 단계(피라미드)를 만들어 두고,
+    // 현재 패널 크기로 줄인 결과를 캐시해 repaint마다 원본을 다시 축소하지 않는다 (크기가 바뀔 때만 다시 만듦).
     class GameBoardPanel extends JPanel {
+        private static final int MIN_LEVEL_SIZE = 128; // 피라미드 마지막 단계의 최소 가로/세로
         private Image backgroundImage;
+        private final List<BufferedImage> pyramid = new ArrayList<>(); // [0] = 원본 크기, 이후 절반씩
+        private BufferedImage scaledBackground; // 현재 패널 크기에 맞춘 이미지 (drawW x drawH)
+        private static final int PREVIEW_SIZE = 256; // 미리보기 긴 변 (대략)
+        private boolean loadingImage = false;
+        private int loadGeneration = 0;  // 라운드마다 증가, 늦게 끝난 이전 디코딩 결과는 버림
+        private Runnable pendingOnShown; // 이미지가 처음 보일 때 한 번 실행
+        private volatile Prefetched prefetched; // 미리 디코딩한 다음 라운드 이미지 (디코딩 스레드가 채움)
+
+        private record Prefetched(String path, List<BufferedImage> levels) {}
         private List<Rectangle> originalAnswers;
         private List<Rectangle> scaledAnswers;
         private boolean[] foundStatus;
         private Dimension originalDimension;
-        private final List<GameMark> marks = new ArrayList<>();
-        private static final int RADIUS = 20; 
+        private final MarkLayer markLayer = new MarkLayer();
+        private static final Font PLACEHOLDER_FONT = new Font("맑은 고딕", Font.BOLD, 20);
         
         public GameBoardPanel() {
             backgroundImage = null; 
@@ -349,56 +692,184 @@ public class HiddenObjectClientGUI extends JFrame {
                     double originalX = (e.getX() - offsetX) / scale;
                     double originalY = (e.getY() - offsetY) / scale;
 
-                    // 4. 원본 정답 목록과 비교하여 인덱스 찾기
-                    int foundIndex = -1;
-                    for (int i = 0; i < originalAnswers.size(); i++) {
-                        // 원본 정답 Rectangle과 변환된 원본 좌표 (originalX, originalY)를 비교
-                        if (originalAnswers.get(i).contains(originalX, originalY) && !foundStatus[i]) {
-                            foundIndex = i;
-                            break;
-                        }
-                    }
-                    
-                    if (foundIndex != -1) {
-                        System.out.println("클라이언트: 정답 " + foundIndex + "번 클릭");
-                        sendPacket(new GamePacket(GamePacket.Type.CLICK, playerName, foundIndex));
-                    } else {
-                        System.out.println("클라이언트: 오답 클릭 (" + e.getX() + ", " + e.getY() + ")");
-                        marks.add(new GameMark(new Point((int) originalX, (int) originalY), false));
-                        repaint();
+                    // 4. 이미지 밖 클릭은 무시
+                    if (originalX < 0 || originalY < 0 || originalX >= imgW || originalY >= imgH) {
+                        return;
                     }
+
+                    // 5. 정답 판정은 서버가 좌표로 한다 (빗나가면 RESULT -1로 돌아옴)
+                    Point clickPoint = new Point((int) originalX, (int) originalY);
+                    System.out.println("클라이언트: 클릭 (" + clickPoint.x + ", " + clickPoint.y + ")");
+                    // 누른 시각(이벤트 시각)을 함께 보내 서버가 동시 클릭을 지연과 무관하게 판정
+                    sendPacket(new GamePacket(GamePacket.Type.CLICK_AT, playerName, clickPoint, e.getWhen()));
                 }
             });
         }
-        public void setRoundData(String path, List<Rectangle> originalAnswers, Dimension originalDimension) {
+        public void setRoundData(String path, List<Rectangle> originalAnswers, Dimension originalDimension, Runnable onShown) {
             this.originalAnswers = originalAnswers;
             this.originalDimension = originalDimension;
             this.foundStatus = new boolean[originalAnswers.size()];
             this.scaledAnswers.clear(); // scaledAnswers는 더 이상 사용하지 않지만, 초기화 유지
+
+            // 이전 라운드 이미지는 내리고 '불러오는 중' 표시
+            backgroundImage = null;
+            pyramid.clear();
+            scaledBackground = null;
+            loadingImage = true;
+            pendingOnShown = onShown;
+
+            // BaseWidth 기준으로 Panel 크기 설정
+            int imgWidth = originalDimension.width;
+            int imgHeight = originalDimension.height;
+            int baseWidth = 600; 
+            double ratio = (double) imgHeight / imgWidth;
+            int newHeight = (int) (baseWidth * ratio);
+            setPreferredSize(new Dimension(baseWidth, newHeight));
+
+            int generation = ++loadGeneration;
+            Prefetched ready = prefetched;
+            if (ready != null && ready.path().equals(path)) {
+                prefetched = null;
+                showLevels(generation, ready.levels()); // 미리 디코딩해 둔 이미지: 바로 표시
+            } else {
+                // 디코딩은 EDT 밖에서 (화면 형식/배경색은 여기서 읽어 넘김)
+                GraphicsConfiguration gc = getGraphicsConfiguration();
+                Color background = getBackground();
+                imageDecoder.execute(() -> decodeImage(path, generation, gc, background));
+            }
+            clearMarks();
+        }
+
+        // 다음 라운드 이미지를 미리 디코딩 (화면에는 아직 표시하지 않음)
+        public void prefetch(String path) {
+            GraphicsConfiguration gc = getGraphicsConfiguration();
+            Color background = getBackground();
+            imageDecoder.execute(() -> {
+                Prefetched current = prefetched;
+                if (current != null && current.path().equals(path)) return;
+                try {
+                    BufferedImage image = ImageIO.read(new File(path));
+                    if (image == null) {
+                        throw new IOException("읽을 수 없는 이미지 파일");
+                    }
+                    prefetched = new Prefetched(path, buildPyramid(image, gc, background));
+                } catch (IOException | RuntimeException e) {
+                    System.out.println("클라이언트: 다음 라운드 이미지 미리 읽기 실패: " + e.getMessage());
+                }
+            });
+        }
+
+        // [디코딩 스레드] 1. 솎아 읽은 미리보기 2. 원본 + 피라미드. 단계마다 EDT로 넘겨 교체
+        private void decodeImage(String path, int generation, GraphicsConfiguration gc, Color background) {
+            Prefetched ready = prefetched;
+            if (ready != null && ready.path().equals(path)) {
+                // 앞서 대기열에 있던 미리 읽기가 방금 끝남
+                prefetched = null;
+                SwingUtilities.invokeLater(() -> showLevels(generation, ready.levels()));
+                return;
+            }
             try {
-                backgroundImage = new ImageIcon(path).getImage();
-                if (backgroundImage.getWidth(null) == -1) {
-                    throw new IOException("이미지 파일 로드 실패: " + path);
+                BufferedImage full;
+                try (ImageInputStream in = ImageIO.createImageInputStream(new File(path))) {
+                    Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+                    if (readers == null || !readers.hasNext()) {
+                        throw new IOException("읽을 수 없는 이미지 파일");
+                    }
+                    ImageReader reader = readers.next();
+                    try {
+                        reader.setInput(in);
+                        int step = Math.max(reader.getWidth(0), reader.getHeight(0)) / PREVIEW_SIZE;
+                        if (step >= 2) {
+                            ImageReadParam param = reader.getDefaultReadParam();
+                            param.setSourceSubsampling(step, step, 0, 0); // 가로/세로 step 픽셀마다 하나만 디코딩
+                            BufferedImage preview = reader.read(0, param);
+                            List<BufferedImage> levels = List.of(
+                                    renderScaled(preview, preview.getWidth(), preview.getHeight(), gc, background));
+                            SwingUtilities.invokeLater(() -> showLevels(generation, levels));
+                        }
+                        full = reader.read(0);
+                    } finally {
+                        reader.dispose();
+                    }
                 }
-                
-                // BaseWidth 기준으로 Panel 크기 설정
-                int imgWidth = originalDimension.width;
-                int imgHeight = originalDimension.height;
-                int baseWidth = 600; 
-                double ratio = (double) imgHeight / imgWidth;
-                int newHeight = (int) (baseWidth * ratio);
-                setPreferredSize(new Dimension(baseWidth, newHeight));
-                
-            } catch (Exception e) {
+                List<BufferedImage> levels = buildPyramid(full, gc, background);
+                SwingUtilities.invokeLater(() -> showLevels(generation, levels));
+            } catch (IOException | RuntimeException e) {
                 e.printStackTrace();
-                backgroundImage = null; 
-                HiddenObjectClientGUI.this.appendStatus("[에러] 이미지 로드 실패: " + path + "\n");
+                SwingUtilities.invokeLater(() -> {
+                    if (generation != loadGeneration) return;
+                    loadingImage = false;
+                    HiddenObjectClientGUI.this.appendStatus("[에러] 이미지 로드 실패: " + path + "\n");
+                    runPendingOnShown(); // 서버 라운드는 이미 진행 중이므로 타이머는 시작
+                    repaint();
+                });
             }
-            clearMarks();
         }
-        
+
+        // [EDT] 디코딩 결과 교체 (다음 라운드가 이미 시작됐으면 버림). 처음 보일 때 라운드 시작 콜백 실행
+        private void showLevels(int generation, List<BufferedImage> levels) {
+            if (generation != loadGeneration) return;
+            pyramid.clear();
+            pyramid.addAll(levels);
+            backgroundImage = pyramid.get(0);
+            scaledBackground = null;
+            loadingImage = false;
+            runPendingOnShown();
+            repaint();
+        }
+
+        private void runPendingOnShown() {
+            Runnable onShown = pendingOnShown;
+            pendingOnShown = null;
+            if (onShown != null) onShown.run();
+        }
+
+        // 원본 -> 1/2 -> 1/4 ... (각 단계는 바로 위 단계를 쌍선형으로 절반 축소, 화면과 같은 형식의 이미지)
+        private List<BufferedImage> buildPyramid(BufferedImage source, GraphicsConfiguration gc, Color background) {
+            List<BufferedImage> levels = new ArrayList<>();
+            int w = source.getWidth();
+            int h = source.getHeight();
+            BufferedImage level = renderScaled(source, w, h, gc, background);
+            levels.add(level);
+            while (w / 2 >= MIN_LEVEL_SIZE && h / 2 >= MIN_LEVEL_SIZE) {
+                w = (w + 1) / 2;
+                h = (h + 1) / 2;
+                level = renderScaled(level, w, h, gc, background);
+                levels.add(level);
+            }
+            return levels;
+        }
+
+        // 패널 크기에 맞춘 배경. 크기가 같으면 캐시를 그대로 쓴다.
+        private BufferedImage scaledBackground(int drawW, int drawH) {
+            if (scaledBackground == null || scaledBackground.getWidth() != drawW || scaledBackground.getHeight() != drawH) {
+                // 목표보다 큰 단계 중 가장 작은 것에서 축소 (한 번에 2배 이하로만 줄어 계단 현상이 없음)
+                BufferedImage source = pyramid.get(0);
+                for (BufferedImage level : pyramid) {
+                    if (level.getWidth() < drawW || level.getHeight() < drawH) break;
+                    source = level;
+                }
+                scaledBackground = renderScaled(source, drawW, drawH, getGraphicsConfiguration(), getBackground());
+            }
+            return scaledBackground;
+        }
+
+        private BufferedImage renderScaled(Image source, int w, int h, GraphicsConfiguration gc, Color background) {
+            BufferedImage out = gc != null
+                    ? gc.createCompatibleImage(w, h, Transparency.OPAQUE)
+                    : new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = out.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(background);
+            g.fillRect(0, 0, w, h);
+            g.drawImage(source, 0, 0, w, h, null);
+            g.dispose();
+            return out;
+        }
+
         public void clearMarks() {
-            marks.clear();
+            markLayer.clear();
             repaint();
         }
         public void addMark(int answerIndex, boolean correct) {
@@ -411,17 +882,47 @@ public class HiddenObjectClientGUI extends JFrame {
             Rectangle originalRect = originalAnswers.get(answerIndex);
             Point center = new Point(originalRect.x + originalRect.width / 2, originalRect.y + originalRect.height / 2);
             
-            marks.add(new GameMark(center, correct));
+            boolean placed = updateMarkTransform();
+            Rectangle dirty = markLayer.add(center, correct, System.currentTimeMillis());
             
             if (correct) {
                 foundStatus[answerIndex] = true;
             }
-            repaint();
+            repaintMarks(placed, dirty); // 마크 영역만
+        }
+        // 빗나간 클릭 표시 (원본 이미지 좌표)
+        public void addMissMark(Point originalPoint) {
+            boolean placed = updateMarkTransform();
+            repaintMarks(placed, markLayer.add(originalPoint, false, System.currentTimeMillis()));
         }
         public void removeExpiredMarks() {
-            long currentTime = System.currentTimeMillis();
-            // GameMark의 p(Point): 원본 이미지 좌표계
-            if (marks.removeIf(m -> !m.correct && currentTime > m.expiryTime)) {
+            boolean placed = updateMarkTransform();
+            Rectangle dirty = markLayer.removeExpired(System.currentTimeMillis());
+            if (dirty != null) {
+                repaintMarks(placed, dirty);
+            }
+        }
+
+        // 마크 레이어 변환을 지금 패널 크기로 맞춘다 (paintComponent와 같은 계산).
+        // 첫 paint 전이나 크기가 바뀐 직후에도 더티 영역이 맞도록. 이미지 크기를 모르거나 패널 크기가 0이면 false
+        private boolean updateMarkTransform() {
+            int panelW = getWidth();
+            int panelH = getHeight();
+            if (originalDimension == null || panelW <= 0 || panelH <= 0) {
+                return false;
+            }
+            double scale = Math.min((double) panelW / originalDimension.width, (double) panelH / originalDimension.height);
+            int offsetX = (panelW - (int) (originalDimension.width * scale)) / 2;
+            int offsetY = (panelH - (int) (originalDimension.height * scale)) / 2;
+            markLayer.setTransform(offsetX, offsetY, scale);
+            return true;
+        }
+
+        // 변환을 맞췄으면 그 영역만, 아니면 전체를 다시 그린다
+        private void repaintMarks(boolean placed, Rectangle dirty) {
+            if (placed) {
+                repaint(dirty);
+            } else {
                 repaint();
             }
         }
@@ -446,50 +947,21 @@ public class HiddenObjectClientGUI extends JFrame {
                 int offsetX = (panelW - drawW) / 2;
                 int offsetY = (panelH - drawH) / 2;
 
-                // 실제 이미지 그리기
-                g2.drawImage(backgroundImage, offsetX, offsetY, drawW, drawH, this);
-
-                // 마크 그릴 때 (m.p.x, m.p.y는 원본 좌표)
-                for (GameMark m : marks) {
-                    // [수정] 원본 좌표를 화면 좌표로 변환하여 그립니다.
-                    int drawX = (int) (offsetX + m.p.x * scale);
-                    int drawY = (int) (offsetY + m.p.y * scale);
-                    
-                    if (m.correct) {
-                        // ... (정답 마크 그리기 로직) ...
-                         g2.setColor(new Color(0, 255, 0, 180));
-                         g2.setStroke(new BasicStroke(3));
-                         g2.draw(new Ellipse2D.Double(
-                                 drawX - RADIUS, drawY - RADIUS,
-                                 RADIUS * 2, RADIUS * 2
-                         ));
-                    } else {
-                        // ... (오답 마크 그리기 로직) ...
-                        g2.setColor(Color.RED);
-                        g2.setFont(new Font("맑은 고딕", Font.BOLD, 28));
-                        g2.drawString("X", drawX - 10, drawY + 10);
-                    }
+                // 실제 이미지 그리기 (캐시된 축소 이미지를 그대로 복사)
+                if (drawW > 0 && drawH > 0) {
+                    g2.drawImage(scaledBackground(drawW, drawH), offsetX, offsetY, this);
                 }
+
+                // 마크 (원본 좌표 -> 화면 좌표 변환은 레이어가, 클립 영역 밖 마크는 건너뜀)
+                markLayer.setTransform(offsetX, offsetY, scale);
+                markLayer.paint(g2);
             } else {
                 g2.setColor(Color.LIGHT_GRAY);
                 g2.fillRect(0, 0, getWidth(), getHeight());
                 g2.setColor(Color.BLACK);
-                g2.setFont(new Font("맑은 고딕", Font.BOLD, 20));
-                g2.drawString("서버에서 라운드 시작 대기 중...", getWidth() / 2 - 120, getHeight() / 2);
-            }
-        }
-        class GameMark {
-            Point p; // 원본 이미지 좌표계의 중심점
-            boolean correct;
-            long expiryTime; 
-            GameMark(Point centerPoint, boolean correct) {
-                this.p = centerPoint;
-                this.correct = correct;
-                if (correct) {
-                    this.expiryTime = -1; 
-                } else {
-                    this.expiryTime = System.currentTimeMillis() + 5000; 
-                }
+                g2.setFont(PLACEHOLDER_FONT);
+                g2.drawString(loadingImage ? "이미지 불러오는 중..." : "서버에서 라운드 시작 대기 중...",
+                        getWidth() / 2 - 120, getHeight() / 2);
             }
         }
     }
@@ -1,10 +1,9 @@
 package client;
 
+import model.PacketConnection;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.net.Socket;
 
 // 홈 패널 (닉네임, IP, 포트 입력)
@@ -92,10 +91,9 @@ public class HomePanel extends JPanel {
             protected void done() {
                 try {
                     Socket socket = get(); 
-                    ObjectOutputStream out = new ObjectOutputStream(socket.getOutputStream());
-                    ObjectInputStream in = new ObjectInputStream(socket.getInputStream());
+                    PacketConnection connection = new PacketConnection(socket);
                     
-                    launcher.switchToLobby(socket, out, in, name);
+                    launcher.switchToLobby(connection, name);
 
                 } catch (Exception ex) {
                     statusLabel.setText("오류: 서버 연결 실패.");
@@ -0,0 +1,112 @@
+package client;
+
+import model.ContentHash;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// 라운드 이미지 디스크 캐시 (내용 주소 방식: 파일 이름 = SHA-256 해시)
+// 같은 해시면 같은 내용이므로 한 번 받은 이미지는 다시 받지 않는다.
+// 전체 크기가 한도를 넘으면 가장 오래 쓰지 않은 파일부터 지운다 (마지막 사용 시각 = 파일 수정 시각).
+//
+// 설정 (시스템 프로퍼티):
+//   client.imageCache.dir      : 캐시 폴더 (기본 ~/.hidden-object/images)
+//   client.imageCache.maxBytes : 최대 크기 (기본 256MB)
+class ImageCache {
+
+    private static final String SUFFIX = ".img";
+
+    private final Path dir;
+    private final long maxBytes;
+
+    ImageCache() {
+        this(Paths.get(System.getProperty("client.imageCache.dir",
+                        Paths.get(System.getProperty("user.home"), ".hidden-object", "images").toString())),
+             Long.getLong("client.imageCache.maxBytes", 256L * 1024 * 1024));
+    }
+
+    ImageCache(Path dir, long maxBytes) {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+    }
+
+    // 캐시에 있으면 파일 경로 (사용 시각 갱신), 없으면 null
+    Path get(String hash, int size) {
+        if (!ContentHash.isValid(hash)) return null;
+        Path file = dir.resolve(hash + SUFFIX);
+        try {
+            if (!Files.isRegularFile(file) || Files.size(file) != size) {
+                return null;
+            }
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return file;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // 받은 이미지 저장. 해시가 맞지 않으면 저장하지 않고 null
+    Path put(String hash, byte[] data) throws IOException {
+        if (!ContentHash.isValid(hash) || !hash.equals(ContentHash.of(data))) {
+            return null;
+        }
+        Files.createDirectories(dir);
+        Path file = dir.resolve(hash + SUFFIX);
+        Path temp = Files.createTempFile(dir, hash, ".tmp");
+        try {
+            Files.write(temp, data);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        evict(file);
+        return file;
+    }
+
+    // 한도를 넘으면 오래된 파일부터 삭제 (방금 넣은 파일은 제외)
+    private void evict(Path keep) {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(dir)) {
+            files = list.filter(p -> p.getFileName().toString().endsWith(SUFFIX)).collect(Collectors.toList());
+        } catch (IOException e) {
+            return;
+        }
+
+        long total = 0;
+        List<Entry> entries = new ArrayList<>(files.size());
+        for (Path file : files) {
+            try {
+                long size = Files.size(file);
+                total += size;
+                entries.add(new Entry(file, size, Files.getLastModifiedTime(file).toMillis()));
+            } catch (IOException ignored) {
+                // 다른 클라이언트가 지우는 중
+            }
+        }
+        if (total <= maxBytes) return;
+
+        entries.sort(Comparator.comparingLong(Entry::lastUsed));
+        for (Entry entry : entries) {
+            if (total <= maxBytes) break;
+            if (entry.file().equals(keep)) continue;
+            try {
+                Files.deleteIfExists(entry.file());
+                total -= entry.size();
+                System.out.println("[캐시] 오래된 이미지 삭제: " + entry.file().getFileName());
+            } catch (IOException ignored) {
+                // 사용 중이면 다음 기회에
+            }
+        }
+    }
+
+    private record Entry(Path file, long size, long lastUsed) {}
+}
@@ -95,11 +95,21 @@ public class InfoPanel extends JPanel {
         this.playerName = playerName;
     }
     
-    // 준비/준비해제 토글
-    private void toggleReady() {
-        isReady = !isReady;
+    // 방에서 나왔을 때 목록 비우기
+    public void clearPlayers() {
+        playerListArea.setText("플레이어:\n");
+        setReady(false);
+    }
+
+    private void setReady(boolean ready) {
+        isReady = ready;
         readyButton.setText(isReady ? "준비 완료" : "게임 준비");
         readyButton.setBackground(isReady ? Color.GREEN : Color.LIGHT_GRAY);
+    }
+
+    // 준비/준비해제 토글
+    private void toggleReady() {
+        setReady(!isReady);
         
         launcher.sendPacket(new GamePacket(GamePacket.Type.READY_STATUS, playerName, isReady));
     }
@@ -124,6 +134,7 @@ public class InfoPanel extends JPanel {
         if (playerName == null) return; // 아직 설정 안됨
         
         isHost = playerName.equals(hostName);
+        setReady(Boolean.TRUE.equals(playerStatus.get(playerName))); // 방을 옮기면 서버에서 준비 해제됨
 
         // 1. 플레이어 목록 갱신
         StringBuilder sb = new StringBuilder("플레이어 목록\n");
@@ -0,0 +1,194 @@
+package client;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Stroke;
+import java.awt.Transparency;
+import java.awt.font.GlyphVector;
+import java.awt.geom.Ellipse2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+// 게임 보드 위 클릭 마크 (정답 O / 오답 X) 레이어 (EDT 전용)
+// 마크는 화면 배율과 관계없이 크기가 같으므로, 글꼴/선/"X" 글리프로 O와 X를 한 번씩만 반투명 이미지(스프라이트)에
+// 그려 두고 매 프레임에는 복사만 한다. 그릴 때 객체를 만들지 않는다.
+// 마크를 더하거나 지울 때는 그 마크가 차지하는 화면 영역만 돌려주어 패널이 그 부분만 다시 그리게 한다.
+class MarkLayer {
+
+    static final int RADIUS = 20;
+    static final long MISS_LIFETIME_MILLIS = 5000; // 오답 마크는 잠시 후 사라짐
+
+    private static final Font MISS_FONT = new Font("맑은 고딕", Font.BOLD, 28);
+    private static final Stroke CORRECT_STROKE = new BasicStroke(3);
+    private static final Color CORRECT_COLOR = new Color(0, 255, 0, 180);
+    private static final Color MISS_COLOR = Color.RED;
+    private static final int PAD = 3; // 선 두께, 안티에일리어싱 여유
+
+    // 마크 저장 (구조체 배열 대신 기본형 배열, 원본 이미지 좌표계의 중심점)
+    // 정답 마크는 사라지지 않으므로 뒤에 붙이기만 한다.
+    private int[] correctX = new int[16];
+    private int[] correctY = new int[16];
+    private int correctCount;
+
+    // 오답 마크는 모두 수명이 같아 추가한 순서 = 만료 순서이므로 원형 큐 자체가 만료 순서 큐가 된다.
+    // 만료 처리는 앞에서부터 지난 것만 꺼내므로 O(만료된 개수)
+    private int[] missX = new int[16];
+    private int[] missY = new int[16];
+    private long[] missExpiry = new long[16];
+    private int missHead;  // 가장 오래된 오답 마크 위치
+    private int missCount;
+
+    // 그리기용 재사용 객체
+    private final Rectangle clip = new Rectangle();
+    private BufferedImage correctSprite;
+    private BufferedImage missSprite;
+    private GraphicsConfiguration spriteConfig; // 화면(모니터)이 바뀌면 다시 만듦
+
+    // 원본 이미지 좌표 -> 화면 좌표 (패널이 그릴 때, 그리고 마크를 더하거나 지우기 직전에 현재 크기로 갱신)
+    private int offsetX;
+    private int offsetY;
+    private double scale = 1.0;
+
+    void setTransform(int offsetX, int offsetY, double scale) {
+        this.offsetX = offsetX;
+        this.offsetY = offsetY;
+        this.scale = scale;
+    }
+
+    void clear() {
+        correctCount = 0;
+        missHead = 0;
+        missCount = 0;
+    }
+
+    // 마크 추가. 다시 그려야 할 화면 영역을 돌려준다.
+    Rectangle add(Point center, boolean correct, long now) {
+        if (correct) {
+            if (correctCount == correctX.length) {
+                correctX = Arrays.copyOf(correctX, correctCount * 2);
+                correctY = Arrays.copyOf(correctY, correctCount * 2);
+            }
+            correctX[correctCount] = center.x;
+            correctY[correctCount] = center.y;
+            correctCount++;
+        } else {
+            if (missCount == missX.length) {
+                growMisses();
+            }
+            int slot = (missHead + missCount) & (missX.length - 1);
+            missX[slot] = center.x;
+            missY[slot] = center.y;
+            missExpiry[slot] = now + MISS_LIFETIME_MILLIS;
+            missCount++;
+        }
+        return bounds(correct, center.x, center.y);
+    }
+
+    // 원형 큐를 두 배로 늘리면서 앞에서부터 다시 정렬 (용량은 항상 2의 거듭제곱)
+    private void growMisses() {
+        int capacity = missX.length * 2;
+        int[] x = new int[capacity];
+        int[] y = new int[capacity];
+        long[] expiry = new long[capacity];
+        for (int i = 0; i < missCount; i++) {
+            int slot = (missHead + i) & (missX.length - 1);
+            x[i] = missX[slot];
+            y[i] = missY[slot];
+            expiry[i] = missExpiry[slot];
+        }
+        missX = x;
+        missY = y;
+        missExpiry = expiry;
+        missHead = 0;
+    }
+
+    // 시간이 지난 오답 마크 제거. 지운 마크들을 덮는 영역 (없으면 null)
+    Rectangle removeExpired(long now) {
+        Rectangle dirty = null;
+        while (missCount > 0 && now > missExpiry[missHead]) {
+            Rectangle r = bounds(false, missX[missHead], missY[missHead]);
+            if (dirty == null) {
+                dirty = r;
+            } else {
+                dirty.add(r);
+            }
+            missHead = (missHead + 1) & (missX.length - 1);
+            missCount--;
+        }
+        return dirty;
+    }
+
+    // 클립 영역과 겹치는 마크만 그린다
+    void paint(Graphics2D g2) {
+        clip.setBounds(Integer.MIN_VALUE / 2, Integer.MIN_VALUE / 2, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        g2.getClipBounds(clip); // 클립이 없으면 그대로 (전체)
+
+        prepareSprites(g2.getDeviceConfiguration());
+        for (int i = 0; i < correctCount; i++) {
+            int drawX = (int) (offsetX + correctX[i] * scale);
+            int drawY = (int) (offsetY + correctY[i] * scale);
+            if (intersectsClip(true, drawX, drawY)) {
+                g2.drawImage(correctSprite, drawX - RADIUS - PAD, drawY - RADIUS - PAD, null);
+            }
+        }
+        // 오답 X는 정답 O 위에 그린다
+        int mask = missX.length - 1;
+        for (int i = 0; i < missCount; i++) {
+            int slot = (missHead + i) & mask;
+            int drawX = (int) (offsetX + missX[slot] * scale);
+            int drawY = (int) (offsetY + missY[slot] * scale);
+            if (intersectsClip(false, drawX, drawY)) {
+                g2.drawImage(missSprite, drawX - 10 - PAD, drawY + 10 - MISS_FONT.getSize() - PAD, null);
+            }
+        }
+    }
+
+    // O / X 스프라이트 (bounds와 같은 크기, 같은 기준점)
+    private void prepareSprites(GraphicsConfiguration gc) {
+        if (correctSprite != null && gc == spriteConfig) return;
+        spriteConfig = gc;
+
+        int size = RADIUS * 2 + PAD * 2;
+        correctSprite = gc.createCompatibleImage(size, size, Transparency.TRANSLUCENT);
+        Graphics2D g = correctSprite.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setColor(CORRECT_COLOR);
+        g.setStroke(CORRECT_STROKE);
+        g.draw(new Ellipse2D.Double(PAD, PAD, RADIUS * 2, RADIUS * 2));
+        g.dispose();
+
+        size = MISS_FONT.getSize() + PAD * 2;
+        missSprite = gc.createCompatibleImage(size, size, Transparency.TRANSLUCENT);
+        g = missSprite.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setColor(MISS_COLOR);
+        GlyphVector glyph = MISS_FONT.createGlyphVector(g.getFontRenderContext(), "X");
+        g.drawGlyphVector(glyph, PAD, PAD + MISS_FONT.getSize());
+        g.dispose();
+    }
+
+    private boolean intersectsClip(boolean correct, int drawX, int drawY) {
+        int left = correct ? drawX - RADIUS - PAD : drawX - 10 - PAD;
+        int top = correct ? drawY - RADIUS - PAD : drawY + 10 - MISS_FONT.getSize() - PAD;
+        int size = correct ? RADIUS * 2 + PAD * 2 : MISS_FONT.getSize() + PAD * 2;
+        return left < clip.x + clip.width && left + size > clip.x
+                && top < clip.y + clip.height && top + size > clip.y;
+    }
+
+    // 마크가 화면에서 차지하는 영역 (paint의 그리기 위치와 같은 계산)
+    private Rectangle bounds(boolean correct, int x, int y) {
+        int drawX = (int) (offsetX + x * scale);
+        int drawY = (int) (offsetY + y * scale);
+        if (correct) {
+            return new Rectangle(drawX - RADIUS - PAD, drawY - RADIUS - PAD, RADIUS * 2 + PAD * 2, RADIUS * 2 + PAD * 2);
+        }
+        int size = MISS_FONT.getSize() + PAD * 2;
+        return new Rectangle(drawX - 10 - PAD, drawY + 10 - MISS_FONT.getSize() - PAD, size, size);
+    }
+}
@@ -1,23 +1,26 @@
 package client;
 
 import model.GamePacket;
+import model.PacketConnection;
+import model.RoomInfo;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.awt.event.ActionListener;
-import java.io.ObjectOutputStream;
+import java.util.List;
 import java.util.Map;
 
 // 대기방(WatingRoom) 패널
 public class WaitingRoom extends JPanel {
     private GameLauncher launcher;
-    private ObjectOutputStream out;
+    private PacketConnection connection;
     private String playerName;
 
     // UI 컴포넌트
     private JTextArea chatArea;
     private JTextField chatInput;
     private InfoPanel infoPanel; // (신규) 분리된 InfoPanel
+    private JLabel roomLabel;    // 현재 방 표시
 
     public WaitingRoom(GameLauncher launcher) {
         this.launcher = launcher;
@@ -25,6 +28,20 @@ public class WaitingRoom extends JPanel {
         setBorder(new EmptyBorder(10, 10, 10, 10));
         setSize(600, 400);
 
+        // 0. 상단: 현재 방 / 방 이동 버튼
+        JPanel roomPanel = new JPanel(new BorderLayout(5, 0));
+        roomLabel = new JLabel("방 없음");
+        JPanel roomButtons = new JPanel(new FlowLayout(FlowLayout.RIGHT, 5, 0));
+        JButton listButton = new JButton("방 목록");
+        JButton createButton = new JButton("방 만들기");
+        JButton leaveButton = new JButton("나가기");
+        roomButtons.add(listButton);
+        roomButtons.add(createButton);
+        roomButtons.add(leaveButton);
+        roomPanel.add(roomLabel, BorderLayout.CENTER);
+        roomPanel.add(roomButtons, BorderLayout.EAST);
+        add(roomPanel, BorderLayout.NORTH);
+
         // 1. 중앙: 채팅창
         chatArea = new JTextArea("대기방에 입장했습니다.\n");
         chatArea.setEditable(false);
@@ -47,10 +64,19 @@ public class WaitingRoom extends JPanel {
         ActionListener sendChatAction = e -> sendChat();
         chatInput.addActionListener(sendChatAction);
         sendButton.addActionListener(sendChatAction);
+
+        listButton.addActionListener(e -> launcher.sendPacket(
+                new GamePacket(GamePacket.Type.ROOM_LIST, playerName, 0, null)));
+        createButton.addActionListener(e -> createRoom());
+        leaveButton.addActionListener(e -> {
+            launcher.sendPacket(new GamePacket(GamePacket.Type.ROOM_LEAVE, playerName, 0, null));
+            roomLabel.setText("방 없음");
+            infoPanel.clearPlayers();
+        });
     }
     
-    public void setConnection(ObjectOutputStream out, String playerName) {
-        this.out = out;
+    public void setConnection(PacketConnection connection, String playerName) {
+        this.connection = connection;
         this.playerName = playerName;
         infoPanel.setPlayerName(playerName); // (추가) InfoPanel에도 이름 전달
         
@@ -76,10 +102,30 @@ public class WaitingRoom extends JPanel {
         chatInput.setText("");
     }
     
+    private void createRoom() {
+        String name = JOptionPane.showInputDialog(this, "방 이름:", playerName + " 님의 방");
+        if (name == null) return; // 취소
+        launcher.sendPacket(new GamePacket(GamePacket.Type.ROOM_CREATE, playerName, 0, name));
+    }
+
     // GameLauncher가 호출하여 InfoPanel 갱신
-    public void updateLobbyInfo(String hostName, Map<String, Boolean> playerStatus, String difficulty, String gameMode) {
+    public void updateLobbyInfo(int roomId, String roomName, String hostName, Map<String, Boolean> playerStatus, String difficulty, String gameMode) {
+        roomLabel.setText(roomId == 0 ? "방 없음" : "#" + roomId + " " + roomName);
         infoPanel.updateUI(hostName, playerStatus, difficulty, gameMode);
     }
+
+    // ROOM_LIST 수신 시: 방을 고르면 입장 요청
+    public void showRoomList(List<RoomInfo> rooms) {
+        if (rooms == null || rooms.isEmpty()) {
+            appendChat("[방 목록] 열린 방이 없습니다. '방 만들기'로 새 방을 여세요.\n");
+            return;
+        }
+        RoomInfo selected = (RoomInfo) JOptionPane.showInputDialog(
+                this, "입장할 방을 선택하세요.", "방 목록",
+                JOptionPane.PLAIN_MESSAGE, null, rooms.toArray(), rooms.get(0));
+        if (selected == null) return; // 취소
+        launcher.sendPacket(new GamePacket(GamePacket.Type.ROOM_JOIN, playerName, selected.getId(), null));
+    }
     
     // GameLauncher가 호출하여 채팅창 갱신
     public void appendChat(String msg) {
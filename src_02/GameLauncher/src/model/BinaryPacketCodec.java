@@ -0,0 +1,387 @@
+package model;
+
+import java.awt.Dimension;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// GamePacket 전용 바이너리 인코더/디코더 (Java 직렬화 대체)
+//
+// 페이로드 구조:
+//   [VERSION 1바이트][Type 1바이트][필드 존재 비트마스크 varint][존재하는 필드들...]
+//   - 정수: zigzag varint
+//   - 문자열: varint 길이 + UTF-8 바이트
+//   - 정답 사각형: varint 개수 + (x, y, w, h) varint 묶음
+//   - boolean 필드(correct, isReady)는 비트마스크만으로 표현
+//   - 방 목록: varint 개수 + (번호, 이름, 인원, 게임 중 여부) 묶음
+//   - 점수 변경분: varint 개수 + (이름, zigzag 점수) 묶음, 전체 스냅샷 여부는 비트마스크로
+//   - 클릭 좌표: (x, y) zigzag varint
+//   - 이미지: 해시 문자열 + varint 전체 크기, 위치 varint, 바이트는 varint 길이 + 원본 그대로
+//   - 라운드 시간: 서버 시각 varlong + 제한 시간 varint (ms)
+//   - 클라이언트 시각: varlong, 지연 목록: varint 개수 + (이름, RTT varint) 묶음
+//   - 세션 토큰: 문자열, 찾은 정답: 비트 배열 바이트 (varint 길이 + 바이트)
+// Type은 ordinal로 보내므로 GamePacket.Type에 새 값은 항상 끝에 추가해야 한다.
+// 필드를 추가하면 VERSION을 올린다. 이전 버전 페이로드는 새 형식의 부분집합이므로 그대로 읽는다.
+public final class BinaryPacketCodec {
+
+    public static final byte VERSION = 8; // 2: 방 번호, 방 목록 추가 / 3: 점수 변경분 추가 / 4: 클릭 좌표 추가 / 5: 이미지 전송 추가 / 6: 라운드 시간 추가 / 7: 지연 측정 추가 / 8: 재접속 추가
+
+    // 필드 존재 비트
+    private static final int F_SENDER       = 1;
+    private static final int F_MESSAGE      = 1 << 1;
+    private static final int F_ROUND        = 1 << 2;
+    private static final int F_ANSWER_INDEX = 1 << 3;
+    private static final int F_CORRECT      = 1 << 4;
+    private static final int F_ANSWERS      = 1 << 5;
+    private static final int F_DIMENSION    = 1 << 6;
+    private static final int F_READY        = 1 << 7;
+    private static final int F_DIFFICULTY   = 1 << 8;
+    private static final int F_GAME_MODE    = 1 << 9;
+    private static final int F_HOST_NAME    = 1 << 10;
+    private static final int F_READY_MAP    = 1 << 11;
+    private static final int F_ROOM_ID      = 1 << 12;
+    private static final int F_ROOMS        = 1 << 13;
+    private static final int F_SCORES       = 1 << 14;
+    private static final int F_SCORES_FULL  = 1 << 15;
+    private static final int F_CLICK_POINT  = 1 << 16;
+    private static final int F_IMAGE        = 1 << 17;
+    private static final int F_IMAGE_OFFSET = 1 << 18;
+    private static final int F_IMAGE_DATA   = 1 << 19;
+    private static final int F_TIMING       = 1 << 20;
+    private static final int F_CLIENT_TIME  = 1 << 21;
+    private static final int F_LATENCIES    = 1 << 22;
+    private static final int F_SESSION      = 1 << 23;
+    private static final int F_FOUND        = 1 << 24;
+
+    private static final GamePacket.Type[] TYPES = GamePacket.Type.values();
+
+    private BinaryPacketCodec() {}
+
+    public static byte[] encode(GamePacket p) {
+        int mask = 0;
+        if (p.getSender() != null)            mask |= F_SENDER;
+        if (p.message != null)                mask |= F_MESSAGE;
+        if (p.round != 0)                     mask |= F_ROUND;
+        if (p.answerIndex != 0)               mask |= F_ANSWER_INDEX;
+        if (p.correct)                        mask |= F_CORRECT;
+        if (p.originalAnswers != null)        mask |= F_ANSWERS;
+        if (p.originalDimension != null)      mask |= F_DIMENSION;
+        if (p.isReady)                        mask |= F_READY;
+        if (p.difficulty != null)             mask |= F_DIFFICULTY;
+        if (p.gameMode != null)               mask |= F_GAME_MODE;
+        if (p.hostName != null)               mask |= F_HOST_NAME;
+        if (p.playerReadyStatus != null)      mask |= F_READY_MAP;
+        if (p.roomId != 0)                    mask |= F_ROOM_ID;
+        if (p.rooms != null)                  mask |= F_ROOMS;
+        if (p.scores != null)                 mask |= F_SCORES;
+        if (p.fullScores)                     mask |= F_SCORES_FULL;
+        if (p.clickPoint != null)             mask |= F_CLICK_POINT;
+        if (p.imageHash != null)              mask |= F_IMAGE;
+        if (p.imageOffset != 0)               mask |= F_IMAGE_OFFSET;
+        if (p.imageData != null)              mask |= F_IMAGE_DATA;
+        if (p.serverTime != 0 || p.timeLimitMillis != 0) mask |= F_TIMING;
+        if (p.clientTime != 0)                mask |= F_CLIENT_TIME;
+        if (p.latencies != null)              mask |= F_LATENCIES;
+        if (p.sessionToken != null)           mask |= F_SESSION;
+        if (p.foundBits != null)              mask |= F_FOUND;
+
+        Writer w = new Writer(p.imageData != null ? p.imageData.length + 128 : 64);
+        w.writeByte(VERSION);
+        w.writeByte(p.getType().ordinal());
+        w.writeVarint(mask);
+
+        if ((mask & F_SENDER) != 0)       w.writeString(p.getSender());
+        if ((mask & F_MESSAGE) != 0)      w.writeString(p.message);
+        if ((mask & F_ROUND) != 0)        w.writeSignedVarint(p.round);
+        if ((mask & F_ANSWER_INDEX) != 0) w.writeSignedVarint(p.answerIndex);
+        if ((mask & F_ANSWERS) != 0) {
+            w.writeVarint(p.originalAnswers.size());
+            for (Rectangle r : p.originalAnswers) {
+                w.writeSignedVarint(r.x);
+                w.writeSignedVarint(r.y);
+                w.writeSignedVarint(r.width);
+                w.writeSignedVarint(r.height);
+            }
+        }
+        if ((mask & F_DIMENSION) != 0) {
+            w.writeSignedVarint(p.originalDimension.width);
+            w.writeSignedVarint(p.originalDimension.height);
+        }
+        if ((mask & F_DIFFICULTY) != 0)   w.writeString(p.difficulty);
+        if ((mask & F_GAME_MODE) != 0)    w.writeString(p.gameMode);
+        if ((mask & F_HOST_NAME) != 0)    w.writeString(p.hostName);
+        if ((mask & F_READY_MAP) != 0) {
+            w.writeVarint(p.playerReadyStatus.size());
+            for (Map.Entry<String, Boolean> e : p.playerReadyStatus.entrySet()) {
+                w.writeString(e.getKey());
+                w.writeByte(Boolean.TRUE.equals(e.getValue()) ? 1 : 0);
+            }
+        }
+        if ((mask & F_ROOM_ID) != 0)      w.writeSignedVarint(p.roomId);
+        if ((mask & F_ROOMS) != 0) {
+            w.writeVarint(p.rooms.size());
+            for (RoomInfo room : p.rooms) {
+                w.writeSignedVarint(room.getId());
+                w.writeString(room.getName());
+                w.writeVarint(room.getPlayerCount());
+                w.writeByte(room.isInGame() ? 1 : 0);
+            }
+        }
+        if ((mask & F_SCORES) != 0) {
+            w.writeVarint(p.scores.size());
+            for (Map.Entry<String, Integer> e : p.scores.entrySet()) {
+                w.writeString(e.getKey());
+                w.writeSignedVarint(e.getValue());
+            }
+        }
+        if ((mask & F_CLICK_POINT) != 0) {
+            w.writeSignedVarint(p.clickPoint.x);
+            w.writeSignedVarint(p.clickPoint.y);
+        }
+        if ((mask & F_IMAGE) != 0) {
+            w.writeString(p.imageHash);
+            w.writeVarint(p.imageSize);
+        }
+        if ((mask & F_IMAGE_OFFSET) != 0) w.writeVarint(p.imageOffset);
+        if ((mask & F_IMAGE_DATA) != 0)   w.writeBytes(p.imageData);
+        if ((mask & F_TIMING) != 0) {
+            w.writeVarlong(p.serverTime);
+            w.writeVarint(p.timeLimitMillis);
+        }
+        if ((mask & F_CLIENT_TIME) != 0)  w.writeVarlong(p.clientTime);
+        if ((mask & F_LATENCIES) != 0) {
+            w.writeVarint(p.latencies.size());
+            for (Map.Entry<String, Integer> e : p.latencies.entrySet()) {
+                w.writeString(e.getKey());
+                w.writeVarint(e.getValue());
+            }
+        }
+        if ((mask & F_SESSION) != 0)      w.writeString(p.sessionToken);
+        if ((mask & F_FOUND) != 0)        w.writeBytes(p.foundBits);
+        return w.toByteArray();
+    }
+
+    public static GamePacket decode(byte[] buf, int offset, int length) throws IOException {
+        Reader r = new Reader(buf, offset, length);
+        int version = r.readByte();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("지원하지 않는 바이너리 프로토콜 버전: " + version);
+        }
+        int typeIndex = r.readByte();
+        if (typeIndex < 0 || typeIndex >= TYPES.length) {
+            throw new IOException("알 수 없는 패킷 타입: " + typeIndex);
+        }
+        int mask = r.readVarint();
+
+        String sender = (mask & F_SENDER) != 0 ? r.readString() : null;
+        GamePacket p = new GamePacket(TYPES[typeIndex], sender, (String) null);
+
+        if ((mask & F_MESSAGE) != 0)      p.message = r.readString();
+        if ((mask & F_ROUND) != 0)        p.round = r.readSignedVarint();
+        if ((mask & F_ANSWER_INDEX) != 0) p.answerIndex = r.readSignedVarint();
+        p.correct = (mask & F_CORRECT) != 0;
+        if ((mask & F_ANSWERS) != 0) {
+            int count = r.readCount();
+            List<Rectangle> answers = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                answers.add(new Rectangle(r.readSignedVarint(), r.readSignedVarint(),
+                                          r.readSignedVarint(), r.readSignedVarint()));
+            }
+            p.originalAnswers = answers;
+        }
+        if ((mask & F_DIMENSION) != 0) {
+            p.originalDimension = new Dimension(r.readSignedVarint(), r.readSignedVarint());
+        }
+        p.isReady = (mask & F_READY) != 0;
+        if ((mask & F_DIFFICULTY) != 0)   p.difficulty = r.readString();
+        if ((mask & F_GAME_MODE) != 0)    p.gameMode = r.readString();
+        if ((mask & F_HOST_NAME) != 0)    p.hostName = r.readString();
+        if ((mask & F_READY_MAP) != 0) {
+            int count = r.readCount();
+            Map<String, Boolean> status = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                status.put(r.readString(), r.readByte() != 0);
+            }
+            p.playerReadyStatus = status;
+        }
+        if ((mask & F_ROOM_ID) != 0)      p.roomId = r.readSignedVarint();
+        if ((mask & F_ROOMS) != 0) {
+            int count = r.readCount();
+            ArrayList<RoomInfo> rooms = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                rooms.add(new RoomInfo(r.readSignedVarint(), r.readString(), r.readVarint(), r.readByte() != 0));
+            }
+            p.rooms = rooms;
+        }
+        if ((mask & F_SCORES) != 0) {
+            int count = r.readCount();
+            LinkedHashMap<String, Integer> scores = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                scores.put(r.readString(), r.readSignedVarint());
+            }
+            p.scores = scores;
+        }
+        p.fullScores = (mask & F_SCORES_FULL) != 0;
+        if ((mask & F_CLICK_POINT) != 0) {
+            p.clickPoint = new Point(r.readSignedVarint(), r.readSignedVarint());
+        }
+        if ((mask & F_IMAGE) != 0) {
+            p.imageHash = r.readString();
+            p.imageSize = r.readVarint();
+        }
+        if ((mask & F_IMAGE_OFFSET) != 0) p.imageOffset = r.readVarint();
+        if ((mask & F_IMAGE_DATA) != 0)   p.imageData = r.readBytes();
+        if ((mask & F_TIMING) != 0) {
+            p.serverTime = r.readVarlong();
+            p.timeLimitMillis = r.readVarint();
+        }
+        if ((mask & F_CLIENT_TIME) != 0)  p.clientTime = r.readVarlong();
+        if ((mask & F_LATENCIES) != 0) {
+            int count = r.readCount();
+            LinkedHashMap<String, Integer> latencies = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                latencies.put(r.readString(), r.readVarint());
+            }
+            p.latencies = latencies;
+        }
+        if ((mask & F_SESSION) != 0)      p.sessionToken = r.readString();
+        if ((mask & F_FOUND) != 0)        p.foundBits = r.readBytes();
+        return p;
+    }
+
+    // --- 바이트 쓰기 (크기 자동 증가) ---
+    private static final class Writer {
+        private byte[] buf;
+        private int size;
+
+        Writer(int capacity) {
+            buf = new byte[capacity];
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buf.length) {
+                byte[] bigger = new byte[Math.max(buf.length * 2, size + extra)];
+                System.arraycopy(buf, 0, bigger, 0, size);
+                buf = bigger;
+            }
+        }
+
+        void writeByte(int b) {
+            ensure(1);
+            buf[size++] = (byte) b;
+        }
+
+        void writeVarint(int v) {
+            ensure(5);
+            while ((v & ~0x7F) != 0) {
+                buf[size++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buf[size++] = (byte) v;
+        }
+
+        void writeVarlong(long v) {
+            ensure(10);
+            while ((v & ~0x7FL) != 0) {
+                buf[size++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buf[size++] = (byte) v;
+        }
+
+        void writeSignedVarint(int v) {
+            writeVarint((v << 1) ^ (v >> 31)); // zigzag
+        }
+
+        void writeString(String s) {
+            byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+            writeVarint(utf8.length);
+            ensure(utf8.length);
+            System.arraycopy(utf8, 0, buf, size, utf8.length);
+            size += utf8.length;
+        }
+
+        void writeBytes(byte[] bytes) {
+            writeVarint(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buf, size, bytes.length);
+            size += bytes.length;
+        }
+
+        byte[] toByteArray() {
+            byte[] out = new byte[size];
+            System.arraycopy(buf, 0, out, 0, size);
+            return out;
+        }
+    }
+
+    // --- 바이트 읽기 (범위 검사 포함) ---
+    private static final class Reader {
+        private final byte[] buf;
+        private int pos;
+        private final int end;
+
+        Reader(byte[] buf, int offset, int length) {
+            this.buf = buf;
+            this.pos = offset;
+            this.end = offset + length;
+        }
+
+        int readByte() throws IOException {
+            if (pos >= end) throw new IOException("패킷이 예상보다 짧습니다.");
+            return buf[pos++] & 0xFF;
+        }
+
+        int readVarint() throws IOException {
+            int result = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int b = readByte();
+                result |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return result;
+            }
+            throw new IOException("잘못된 varint");
+        }
+
+        long readVarlong() throws IOException {
+            long result = 0;
+            for (int shift = 0; shift < 70; shift += 7) {
+                int b = readByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return result;
+            }
+            throw new IOException("잘못된 varlong");
+        }
+
+        int readSignedVarint() throws IOException {
+            int v = readVarint();
+            return (v >>> 1) ^ -(v & 1);
+        }
+
+        // 개수 필드: 남은 바이트보다 클 수 없으므로 거대한 할당을 막는다
+        int readCount() throws IOException {
+            int count = readVarint();
+            if (count < 0 || count > end - pos) throw new IOException("잘못된 개수: " + count);
+            return count;
+        }
+
+        String readString() throws IOException {
+            int len = readCount();
+            String s = new String(buf, pos, len, StandardCharsets.UTF_8);
+            pos += len;
+            return s;
+        }
+
+        byte[] readBytes() throws IOException {
+            int len = readCount();
+            byte[] bytes = new byte[len];
+            System.arraycopy(buf, pos, bytes, 0, len);
+            pos += len;
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package model;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+// 이미지 내용 해시 (SHA-256, 소문자 16진수 64자)
+// 서버가 ROUND_START에 실어 보내고, 클라이언트는 이 값을 캐시 파일 이름과 다운로드 검증에 쓴다.
+public final class ContentHash {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private ContentHash() {}
+
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256을 사용할 수 없습니다.", e); // 모든 JDK에 포함됨
+        }
+    }
+
+    public static String of(byte[] data) {
+        return toHex(newDigest().digest(data));
+    }
+
+    public static String toHex(byte[] digest) {
+        char[] out = new char[digest.length * 2];
+        for (int i = 0; i < digest.length; i++) {
+            out[i * 2] = HEX[(digest[i] >> 4) & 0xF];
+            out[i * 2 + 1] = HEX[digest[i] & 0xF];
+        }
+        return new String(out);
+    }
+
+    // 파일 이름으로 써도 안전한 해시인지 (받은 값 검증용)
+    public static boolean isValid(String hash) {
+        if (hash == null || hash.length() != 64) return false;
+        for (int i = 0; i < hash.length(); i++) {
+            char c = hash.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) return false;
+        }
+        return true;
+    }
+}
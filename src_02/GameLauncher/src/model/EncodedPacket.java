@@ -0,0 +1,68 @@
+package model;
+
+import java.io.IOException;
+import java.util.function.Supplier;
+
+// 브로드캐스트용: 패킷을 형식별로 한 번만 인코딩해 두고, 같은 프레임 바이트를 모든 연결에 그대로 쓴다.
+// 프레임 배열은 만든 뒤 수정하지 않으므로 여러 연결이 공유해도 안전하다.
+public final class EncodedPacket {
+
+    private final GamePacket packet;
+    private final byte[][] frames = new byte[2][]; // [FORMAT_BINARY], [FORMAT_SERIALIZED]
+
+    // Java 직렬화 클라이언트(이전 버전)가 모르는 패킷 대신 보낼 패킷. 필요할 때 한 번만 만든다.
+    private Supplier<GamePacket> legacySupplier;
+    private GamePacket legacyPacket;
+    private boolean binaryOnly; // true면 이전 버전 클라이언트에는 보내지 않음
+
+    public EncodedPacket(GamePacket packet) {
+        this.packet = packet;
+    }
+
+    public EncodedPacket(GamePacket packet, Supplier<GamePacket> legacySupplier) {
+        this.packet = packet;
+        this.legacySupplier = legacySupplier;
+    }
+
+    // 바이너리 클라이언트에만 보내는 패킷 (이전 버전에는 대체할 것이 없는 안내성 패킷)
+    public static EncodedPacket binaryOnly(GamePacket packet) {
+        EncodedPacket encoded = new EncodedPacket(packet);
+        encoded.binaryOnly = true;
+        return encoded;
+    }
+
+    public GamePacket getPacket() {
+        return packet;
+    }
+
+    // 해당 형식의 연결에 실제로 보낼 패킷 (null이면 보내지 않음)
+    public synchronized GamePacket packetFor(int format) {
+        if (format == PacketCodec.FORMAT_BINARY) {
+            return packet;
+        }
+        if (binaryOnly) {
+            return null;
+        }
+        if (legacySupplier == null) {
+            return packet;
+        }
+        if (legacyPacket == null) {
+            legacyPacket = legacySupplier.get();
+        }
+        return legacyPacket;
+    }
+
+    // 헤더를 포함한 완성 프레임. 해당 형식을 처음 요청할 때만 인코딩한다. (null이면 보내지 않음)
+    public synchronized byte[] frame(int format) throws IOException {
+        byte[] frame = frames[format];
+        if (frame == null) {
+            GamePacket target = packetFor(format);
+            if (target == null) {
+                return null;
+            }
+            frame = PacketCodec.encodeFrame(target, format);
+            frames[format] = frame;
+        }
+        return frame;
+    }
+}
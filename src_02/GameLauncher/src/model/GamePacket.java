@@ -3,6 +3,9 @@ package model;
 import java.io.Serializable;
 import java.awt.Rectangle; 
 import java.awt.Dimension; 
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List; 
 import java.util.Map; // (추가)
 
@@ -11,6 +14,7 @@ public class GamePacket implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    // 바이너리 프로토콜은 ordinal을 전송하므로 새 타입은 항상 맨 끝에 추가
     public enum Type {
         JOIN,         // [C->S] 접속
         CLICK,        // [C->S] 정답 클릭 (인덱스)
@@ -27,26 +31,76 @@ public class GamePacket implements Serializable {
         RESULT,       // [S->C] 클릭 결과
         SCORE,        // [S->C] 점수판
         TIMER_END,    // [S->C] 타이머 종료
-        GAME_OVER     // [S->C] 게임 종료
+        GAME_OVER,    // [S->C] 게임 종료
+
+        // --- (여러 방 기능 추가) ---
+        ROOM_CREATE,  // [C->S] 새 방 만들고 입장 (방 이름)
+        ROOM_LIST,    // [C<->S] 방 목록 요청 / 응답
+        ROOM_JOIN,    // [C->S] 다른 방으로 입장 (방 번호)
+        ROOM_LEAVE,   // [C->S] 현재 방에서 나가기 (방 목록 화면으로)
+
+        SCORE_UPDATE, // [S->C] 바뀐 점수만 묶어서 전송 (또는 전체 스냅샷)
+        CLICK_AT,     // [C->S] 클릭 좌표 (원본 이미지 좌표계, 정답 판정은 서버가)
+
+        // --- (이미지 전송) ---
+        IMAGE_REQUEST, // [C->S] 캐시에 없는 이미지 요청 (해시, 시작 위치)
+        IMAGE_CHUNK,   // [S->C] 이미지 조각 (해시, 위치, 전체 크기, 바이트)
+        ROUND_PREFETCH, // [S->C] 다음 라운드 안내 (ROUND_START와 같은 내용, 클라이언트가 미리 받아 디코딩)
+
+        // --- (지연 측정) ---
+        PING,         // [S->C] 서버 시각 (클라이언트는 받은 즉시 PONG)
+        PONG,         // [C->S] 받은 서버 시각 + 클라이언트 시각
+
+        // --- (재접속) ---
+        SESSION       // [S->C] 세션 토큰 발급 (연결이 끊겨도 이 토큰으로 JOIN하면 진행 중인 게임으로 돌아옴)
     }
 
     // --- 데이터 필드 ---
+    // (type/sender 외의 필드는 BinaryPacketCodec이 직접 채우므로 package-private)
     private final Type type;
     private final String sender;
-    private String message;
-    private int round;
-    private int answerIndex; 
-    private boolean correct;
-    private List<Rectangle> originalAnswers; 
-    private Dimension originalDimension; 
+    String message;
+    int round;
+    int answerIndex; 
+    boolean correct;
+    List<Rectangle> originalAnswers; 
+    Dimension originalDimension; 
 
     // --- 대기방 기능 필드 ---
-    private boolean isReady; // READY_STATUS 용
-    private String difficulty; // SETTINGS_UPDATE, START_GAME_REQUEST 용
-    private String gameMode;   // SETTINGS_UPDATE, START_GAME_REQUEST 용
+    boolean isReady; // READY_STATUS 용
+    String difficulty; // SETTINGS_UPDATE, START_GAME_REQUEST 용
+    String gameMode;   // SETTINGS_UPDATE, START_GAME_REQUEST 용
     
-    private String hostName; // LOBBY_UPDATE 용
-    private Map<String, Boolean> playerReadyStatus; // LOBBY_UPDATE 용
+    String hostName; // LOBBY_UPDATE 용
+    Map<String, Boolean> playerReadyStatus; // LOBBY_UPDATE 용
+
+    // --- 여러 방 기능 필드 ---
+    int roomId;           // ROOM_JOIN, LOBBY_UPDATE 용 (방 이름은 message에)
+    ArrayList<RoomInfo> rooms; // ROOM_LIST 응답 용 (직렬화되는 구체 타입)
+
+    // --- 점수 변경분 필드 ---
+    LinkedHashMap<String, Integer> scores; // SCORE_UPDATE 용 (key: playerName, value: 새 점수, 직렬화되는 구체 타입)
+    boolean fullScores;          // true면 전체 점수판 (클라이언트는 기존 목록을 지우고 다시 채움)
+
+    Point clickPoint; // CLICK_AT, 빗나간 RESULT 용 (원본 이미지 좌표)
+
+    // --- 이미지 전송 필드 ---
+    String imageHash;  // ROUND_START, IMAGE_REQUEST, IMAGE_CHUNK 용 (SHA-256 16진수)
+    int imageSize;     // ROUND_START, IMAGE_CHUNK 용 (전체 바이트 수), IMAGE_REQUEST에서는 요청 길이
+    int imageOffset;   // IMAGE_REQUEST, IMAGE_CHUNK 용
+    byte[] imageData;  // IMAGE_CHUNK 용
+
+    // --- 라운드 시간 필드 (서버가 마감을 관리, 클라이언트는 표시만) ---
+    long serverTime;     // ROUND_START, TIMER_END 용 (보낸 시각, 서버 기준 epoch ms)
+    int timeLimitMillis; // ROUND_START 용 (라운드 제한 시간, 0이면 이전 버전 서버)
+
+    // --- 지연 측정 필드 ---
+    long clientTime;               // PONG, CLICK_AT 용 (클라이언트 시계 epoch ms, 서버가 시계 차이로 보정)
+    LinkedHashMap<String, Integer> latencies; // SCORE_UPDATE 용 (key: playerName, value: RTT ms, 직렬화되는 구체 타입)
+
+    // --- 재접속 필드 ---
+    String sessionToken; // SESSION, 재접속 JOIN 용
+    byte[] foundBits;    // 재접속 시 보내는 ROUND_START 용 (이미 찾은 정답 번호 비트, 비트 i = 정답 i)
 
     // --- 생성자 ---
 
@@ -57,6 +111,12 @@ public class GamePacket implements Serializable {
         this.message = difficulty; // JOIN 시에는 난이도 대신 "LOBBY" 문자열
     }
 
+    // 1-1. JOIN (재접속, 세션 토큰 포함) / SESSION (토큰 발급)
+    public GamePacket(Type type, String sender, String difficulty, boolean isJoin, String sessionToken) {
+        this(type, sender, difficulty, isJoin);
+        this.sessionToken = sessionToken;
+    }
+
     // 2. CLICK (정답 클릭)
     public GamePacket(Type type, String sender, int answerIndex) {
         this.type = type;
@@ -80,6 +140,30 @@ public class GamePacket implements Serializable {
         this.message = message; 
     }
 
+    // 4-1. RESULT (빗나간 클릭: answerIndex -1, 클릭 좌표 포함)
+    public GamePacket(Type type, String sender, int answerIndex, boolean correct, String message, Point clickPoint) {
+        this(type, sender, answerIndex, correct, message);
+        this.clickPoint = clickPoint;
+    }
+
+    // 13. IMAGE_REQUEST (이미지 요청: offset부터 length 바이트)
+    public GamePacket(Type type, String sender, String imageHash, int imageOffset, int length) {
+        this.type = type;
+        this.sender = sender;
+        this.imageHash = imageHash;
+        this.imageOffset = imageOffset;
+        this.imageSize = length;
+    }
+
+    // 14. IMAGE_CHUNK (이미지 조각)
+    public GamePacket(Type type, String imageHash, int imageOffset, int imageSize, byte[] imageData) {
+        this.type = type;
+        this.sender = "SERVER";
+        this.imageHash = imageHash;
+        this.imageOffset = imageOffset;
+        this.imageSize = imageSize;
+        this.imageData = imageData;
+    }
     // 5. ROUND_START (라운드 시작)
     public GamePacket(Type type, int round, String imagePath, List<Rectangle> originalAnswers, Dimension originalDimension) {
         this.type = type;
@@ -90,6 +174,35 @@ public class GamePacket implements Serializable {
         this.originalDimension = originalDimension;
     }
     
+    // 5-1. ROUND_START / ROUND_PREFETCH (이미지 해시/크기 포함, 클라이언트는 캐시에 없을 때만 요청)
+    public GamePacket(Type type, int round, String imagePath, List<Rectangle> originalAnswers, Dimension originalDimension,
+                      String imageHash, int imageSize) {
+        this(type, round, imagePath, originalAnswers, originalDimension);
+        this.imageHash = imageHash;
+        this.imageSize = imageSize;
+    }
+
+    // 5-2. ROUND_START (서버 시각/제한 시간 포함)
+    public GamePacket(Type type, int round, String imagePath, List<Rectangle> originalAnswers, Dimension originalDimension,
+                      String imageHash, int imageSize, long serverTime, int timeLimitMillis) {
+        this(type, round, imagePath, originalAnswers, originalDimension, imageHash, imageSize);
+        this.serverTime = serverTime;
+        this.timeLimitMillis = timeLimitMillis;
+    }
+
+    // 5-3. ROUND_START (재접속: 남은 시간과 이미 찾은 정답 포함)
+    public GamePacket(Type type, int round, String imagePath, List<Rectangle> originalAnswers, Dimension originalDimension,
+                      String imageHash, int imageSize, long serverTime, int timeLimitMillis, byte[] foundBits) {
+        this(type, round, imagePath, originalAnswers, originalDimension, imageHash, imageSize, serverTime, timeLimitMillis);
+        this.foundBits = foundBits;
+    }
+
+    // 15. TIMER_END (서버가 라운드 마감을 처리한 시각 포함)
+    public GamePacket(Type type, String sender, String message, long serverTime) {
+        this(type, sender, message);
+        this.serverTime = serverTime;
+    }
+
     public GamePacket(Type type, String message) {
         this.type = type;
         this.sender = "SERVER";
@@ -121,6 +234,71 @@ public class GamePacket implements Serializable {
         this.gameMode = gameMode;
     }
 
+    // 8-1. LOBBY_UPDATE (방 번호/이름 포함)
+    public GamePacket(Type type, int roomId, String roomName, String hostName, Map<String, Boolean> playerReadyStatus, String difficulty, String gameMode) {
+        this(type, hostName, playerReadyStatus, difficulty, gameMode);
+        this.roomId = roomId;
+        this.message = roomName;
+    }
+
+    // 9. ROOM_CREATE / ROOM_LIST(요청) / ROOM_JOIN / ROOM_LEAVE
+    public GamePacket(Type type, String sender, int roomId, String roomName) {
+        this.type = type;
+        this.sender = sender;
+        this.roomId = roomId;
+        this.message = roomName;
+    }
+
+    // 10. ROOM_LIST (응답)
+    public GamePacket(Type type, ArrayList<RoomInfo> rooms) {
+        this.type = type;
+        this.sender = "SERVER";
+        this.rooms = rooms;
+    }
+
+    // 11. SCORE_UPDATE (점수 변경분 / 전체 스냅샷)
+    public GamePacket(Type type, LinkedHashMap<String, Integer> scores, boolean fullScores) {
+        this.type = type;
+        this.sender = "SERVER";
+        this.scores = scores;
+        this.fullScores = fullScores;
+    }
+
+    // 12. CLICK_AT (클릭 좌표)
+    public GamePacket(Type type, String sender, Point clickPoint) {
+        this.type = type;
+        this.sender = sender;
+        this.clickPoint = clickPoint;
+    }
+
+    // 12-1. CLICK_AT (누른 시각 포함, 동시 클릭 판정용)
+    public GamePacket(Type type, String sender, Point clickPoint, long clientTime) {
+        this(type, sender, clickPoint);
+        this.clientTime = clientTime;
+    }
+
+    // 16. PING (서버 시각)
+    public GamePacket(Type type, long serverTime) {
+        this.type = type;
+        this.sender = "SERVER";
+        this.serverTime = serverTime;
+    }
+
+    // 17. PONG (받은 서버 시각을 그대로 + 클라이언트 시각)
+    public GamePacket(Type type, String sender, long serverTime, long clientTime) {
+        this.type = type;
+        this.sender = sender;
+        this.serverTime = serverTime;
+        this.clientTime = clientTime;
+    }
+
+    // 18. SCORE_UPDATE (플레이어별 RTT만, 점수는 그대로)
+    public GamePacket(Type type, LinkedHashMap<String, Integer> latencies) {
+        this.type = type;
+        this.sender = "SERVER";
+        this.latencies = latencies;
+    }
+
 
     // --- Getter 메소드 ---
     public Type getType() { return type; }
@@ -138,4 +316,38 @@ public class GamePacket implements Serializable {
     public String getGameMode() { return gameMode; }
     public String getHostName() { return hostName; }
     public Map<String, Boolean> getPlayerReadyStatus() { return playerReadyStatus; }
+
+    // (여러 방 Getter 추가)
+    public int getRoomId() { return roomId; }
+    public String getRoomName() { return message; }
+    public List<RoomInfo> getRooms() { return rooms; }
+
+    // (점수 변경분 Getter 추가)
+    public Map<String, Integer> getScores() { return scores; }
+    public boolean isFullScores() { return fullScores; }
+    public Point getClickPoint() { return clickPoint; }
+
+    // (이미지 전송 Getter 추가)
+    public String getImageHash() { return imageHash; }
+    public int getImageSize() { return imageSize; }
+    public int getImageOffset() { return imageOffset; }
+    public byte[] getImageData() { return imageData; }
+
+    // (라운드 시간 Getter 추가)
+    public long getServerTime() { return serverTime; }
+    public int getTimeLimitMillis() { return timeLimitMillis; }
+
+    // (지연 측정 Getter 추가)
+    public long getClientTime() { return clientTime; }
+    public Map<String, Integer> getLatencies() { return latencies; }
+
+    // (재접속 Getter 추가)
+    public String getSessionToken() { return sessionToken; }
+    public byte[] getFoundBits() { return foundBits; }
+
+    // 재접속 ROUND_START에서 정답 i를 이미 찾았는지
+    public boolean isFound(int answerIndex) {
+        return foundBits != null && answerIndex >= 0 && answerIndex / 8 < foundBits.length
+                && (foundBits[answerIndex / 8] & (1 << (answerIndex % 8))) != 0;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,86 @@
+package model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+// GamePacket <-> 바이트 변환 규칙 (클라이언트/서버 공용)
+// 와이어 형식: [4바이트 길이(big-endian)][페이로드]
+// 패킷마다 독립적으로 인코딩하므로 논블로킹 버퍼에서도 프레임 단위로 잘라 해석할 수 있다.
+//
+// 페이로드 형식 (첫 바이트로 구분):
+//   FORMAT_BINARY     : BinaryPacketCodec (기본값)
+//   FORMAT_SERIALIZED : 패킷 1개를 Java 직렬화 (0xAC 0xED로 시작, 이전 버전 클라이언트)
+// 서버는 상대가 보낸 첫 프레임(JOIN)의 형식으로 응답한다.
+public final class PacketCodec {
+
+    public static final int HEADER_SIZE = 4;
+    public static final int MAX_FRAME_SIZE = 4 * 1024 * 1024; // 4MB 초과 프레임은 비정상으로 간주
+
+    public static final int FORMAT_BINARY = 0;
+    public static final int FORMAT_SERIALIZED = 1;
+    // 프레임 없이 ObjectOutputStream을 계속 이어 쓰는 초기 버전 (스레드 방식 서버만 지원)
+    public static final int FORMAT_STREAM = 2;
+
+    private static final int SERIAL_MAGIC = 0xAC; // ObjectOutputStream 헤더 첫 바이트
+
+    private PacketCodec() {}
+
+    // 패킷 1개 -> 페이로드 (기본 형식)
+    public static byte[] encode(GamePacket packet) throws IOException {
+        return encode(packet, FORMAT_BINARY);
+    }
+
+    public static byte[] encode(GamePacket packet, int format) throws IOException {
+        if (format == FORMAT_BINARY) {
+            return BinaryPacketCodec.encode(packet);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(packet);
+        }
+        return bytes.toByteArray();
+    }
+
+    // 헤더까지 붙인 완성 프레임 (소켓에 그대로 쓸 수 있는 바이트)
+    public static byte[] encodeFrame(GamePacket packet, int format) throws IOException {
+        byte[] payload = encode(packet, format);
+        byte[] frame = new byte[HEADER_SIZE + payload.length];
+        int length = payload.length;
+        frame[0] = (byte) (length >>> 24);
+        frame[1] = (byte) (length >>> 16);
+        frame[2] = (byte) (length >>> 8);
+        frame[3] = (byte) length;
+        System.arraycopy(payload, 0, frame, HEADER_SIZE, length);
+        return frame;
+    }
+
+    // 페이로드 -> 패킷 1개 (형식 자동 판별)
+    public static GamePacket decode(byte[] payload, int offset, int length) throws IOException {
+        if (formatOf(payload, offset) == FORMAT_BINARY) {
+            return BinaryPacketCodec.decode(payload, offset, length);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(payload, offset, length))) {
+            Object obj = in.readObject();
+            if (!(obj instanceof GamePacket)) {
+                throw new IOException("GamePacket이 아닌 객체 수신: " + obj);
+            }
+            return (GamePacket) obj;
+        } catch (ClassNotFoundException e) {
+            throw new IOException("알 수 없는 패킷 클래스", e);
+        }
+    }
+
+    public static int formatOf(byte[] payload, int offset) {
+        return (payload[offset] & 0xFF) == SERIAL_MAGIC ? FORMAT_SERIALIZED : FORMAT_BINARY;
+    }
+
+    // 헤더의 길이 값 검증
+    public static void checkFrameLength(int length) throws IOException {
+        if (length <= 0 || length > MAX_FRAME_SIZE) {
+            throw new IOException("잘못된 프레임 길이: " + length);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.concurrent.locks.ReentrantLock;
+
+// 블로킹 소켓 위에서 길이 프리픽스 프레임으로 GamePacket을 주고받는 연결
+// (클라이언트와 스레드 방식 서버가 함께 사용)
+public class PacketConnection implements Closeable {
+
+    // 서버가 PING을 보내는 것이 확인된 뒤, 이 시간 동안 아무것도 받지 못하면 끊긴 연결로 본다 (클라이언트 쪽)
+    public static final int HEARTBEAT_TIMEOUT_MILLIS = Integer.getInteger("client.heartbeatTimeoutMillis", 15_000);
+
+    private final Socket socket;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    // 보낼 때 사용할 페이로드 형식. 처음 받은 프레임의 형식을 따른다.
+    private volatile int format = PacketCodec.FORMAT_BINARY;
+    private boolean negotiated = false;
+
+    // FORMAT_STREAM(초기 버전 클라이언트)일 때만 사용
+    private ObjectInputStream objectIn;
+    private ResettingObjectOutputStream objectOut; // 긴 세션에서도 핸들 테이블이 커지지 않도록 주기적 reset
+
+    // 클라이언트 쪽: 항상 바이너리 프레임으로 시작
+    public PacketConnection(Socket socket) throws IOException {
+        this.socket = socket;
+        this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+    }
+
+    // 서버 쪽: 첫 바이트를 엿보고 프레임 없는 ObjectOutputStream 클라이언트면 스트림 모드로 전환
+    public static PacketConnection accept(Socket socket) throws IOException {
+        PacketConnection connection = new PacketConnection(socket);
+        connection.in.mark(1);
+        int first = connection.in.read();
+        connection.in.reset();
+        if (first == 0xAC) {
+            connection.objectIn = new ObjectInputStream(connection.in);
+            connection.objectOut = new ResettingObjectOutputStream(connection.out);
+            connection.objectOut.flush();
+            connection.format = PacketCodec.FORMAT_STREAM;
+            connection.negotiated = true;
+        }
+        return connection;
+    }
+
+    // 다음 패킷이 올 때까지 대기
+    public GamePacket readPacket() throws IOException {
+        if (format == PacketCodec.FORMAT_STREAM) {
+            try {
+                return (GamePacket) objectIn.readObject();
+            } catch (ClassNotFoundException | ClassCastException e) {
+                throw new IOException("잘못된 객체 수신", e);
+            }
+        }
+
+        int length = in.readInt();
+        PacketCodec.checkFrameLength(length);
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+        if (!negotiated) {
+            format = PacketCodec.formatOf(payload, 0);
+            negotiated = true;
+        }
+        return PacketCodec.decode(payload, 0, length);
+    }
+
+    // 여러 스레드(리스너, EDT)에서 동시에 보낼 수 있으므로 프레임 단위로 잠금
+    // (블로킹 쓰기 중 가상 스레드가 고정되지 않도록 synchronized 대신 ReentrantLock)
+    public void writePacket(GamePacket packet) throws IOException {
+        if (format == PacketCodec.FORMAT_STREAM) {
+            writeObject(packet);
+            return;
+        }
+        writeFrame(PacketCodec.encodeFrame(packet, format));
+    }
+
+    // 미리 인코딩된 패킷 전송 (브로드캐스트 시 프레임 바이트를 공유)
+    public void writePacket(EncodedPacket packet) throws IOException {
+        if (format == PacketCodec.FORMAT_STREAM) {
+            GamePacket target = packet.packetFor(format);
+            if (target != null) {
+                writeObject(target); // 스트림 형식은 연결마다 핸들 상태가 달라 공유 불가
+            }
+            return;
+        }
+        byte[] frame = packet.frame(format);
+        if (frame != null) {
+            writeFrame(frame);
+        }
+    }
+
+    private void writeFrame(byte[] frame) throws IOException {
+        writeLock.lock();
+        try {
+            out.write(frame);
+            out.flush();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void writeObject(GamePacket packet) throws IOException {
+        writeLock.lock();
+        try {
+            objectOut.writePacket(packet);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // 첫 PING을 받으면 호출 (PING을 보내지 않는 이전 버전 서버에서는 대기방에서 오래 머물러도 끊기지 않도록)
+    // 이후 readPacket이 제한 시간 안에 아무것도 받지 못하면 SocketTimeoutException으로 끊김 처리된다
+    public void enableHeartbeatTimeout() throws SocketException {
+        if (socket.getSoTimeout() == 0) {
+            socket.setSoTimeout(HEARTBEAT_TIMEOUT_MILLIS);
+        }
+    }
+
+    public int getFormat() {
+        return format;
+    }
+
+    public Socket getSocket() {
+        return socket;
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
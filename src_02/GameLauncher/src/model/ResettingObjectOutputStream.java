@@ -0,0 +1,85 @@
+package model;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+
+// 연결 내내 유지되는 ObjectOutputStream용.
+// ObjectOutputStream은 한 번 쓴 객체를 reset() 전까지 핸들 테이블에 붙잡아 두고,
+// 받는 쪽 ObjectInputStream도 같은 테이블을 유지하므로 긴 세션에서는 양쪽 메모리가 계속 늘어난다.
+// 패킷 수 또는 바이트 수 기준으로 주기적으로 reset()해서 두 테이블의 크기를 제한한다.
+public class ResettingObjectOutputStream extends ObjectOutputStream {
+
+    public static final int DEFAULT_MAX_PACKETS = 64;
+    public static final long DEFAULT_MAX_BYTES = 256 * 1024;
+
+    private final CountingStream counter;
+    private final int maxPackets;
+    private final long maxBytes;
+
+    private int packetsSinceReset = 0;
+    private long bytesAtReset = 0;
+    private boolean resetRequested = false;
+
+    public ResettingObjectOutputStream(OutputStream out) throws IOException {
+        this(new CountingStream(out), DEFAULT_MAX_PACKETS, DEFAULT_MAX_BYTES);
+    }
+
+    public ResettingObjectOutputStream(OutputStream out, int maxPackets, long maxBytes) throws IOException {
+        this(new CountingStream(out), maxPackets, maxBytes);
+    }
+
+    private ResettingObjectOutputStream(CountingStream counter, int maxPackets, long maxBytes) throws IOException {
+        super(counter);
+        this.counter = counter;
+        this.maxPackets = maxPackets;
+        this.maxBytes = maxBytes;
+    }
+
+    // 패킷 하나를 쓰고 flush. 한도를 넘으면 곧바로 reset()
+    public void writePacket(Object packet) throws IOException {
+        if (resetRequested) {
+            resetNow();
+        }
+        writeObject(packet);
+        packetsSinceReset++;
+        if (packetsSinceReset >= maxPackets || counter.count - bytesAtReset >= maxBytes) {
+            resetNow();
+        }
+        flush();
+    }
+
+    // 이 스트림을 거치지 않고 아래 스트림에 직접 쓴 뒤 호출 (다음 writePacket 전에 reset)
+    public void requestReset() {
+        resetRequested = true;
+    }
+
+    private void resetNow() throws IOException {
+        reset();
+        packetsSinceReset = 0;
+        bytesAtReset = counter.count;
+        resetRequested = false;
+    }
+
+    // 지나간 바이트 수를 세는 스트림
+    private static class CountingStream extends FilterOutputStream {
+        long count = 0;
+
+        CountingStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
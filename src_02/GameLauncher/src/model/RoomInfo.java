@@ -0,0 +1,32 @@
+package model;
+
+import java.io.Serializable;
+
+// 방 목록(ROOM_LIST)에 들어가는 방 요약 정보
+public class RoomInfo implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int id;
+    private final String name;
+    private final int playerCount;
+    private final boolean inGame;
+
+    public RoomInfo(int id, String name, int playerCount, boolean inGame) {
+        this.id = id;
+        this.name = name;
+        this.playerCount = playerCount;
+        this.inGame = inGame;
+    }
+
+    public int getId() { return id; }
+    public String getName() { return name; }
+    public int getPlayerCount() { return playerCount; }
+    public boolean isInGame() { return inGame; }
+
+    // 목록 표시용
+    @Override
+    public String toString() {
+        return "#" + id + " " + name + " (" + playerCount + "명" + (inGame ? ", 게임 중" : "") + ")";
+    }
+}
@@ -0,0 +1,79 @@
+package server;
+
+import java.awt.Dimension;
+import java.awt.Rectangle;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+// 정답 사각형 공간 색인 (균일 격자)
+// 이미지를 정답 개수만큼의 칸으로 나누고, 칸마다 겹치는 정답 번호를 담아 둔다.
+// 클릭 좌표가 속한 칸만 검사하므로 정답이 수백 개여도 클릭 판정 비용이 거의 일정하다.
+class AnswerGrid {
+
+    private static final int MAX_CELLS_PER_AXIS = 256;
+    private static final int[] EMPTY = new int[0];
+
+    private final List<Rectangle> answers;
+    private final int cols;
+    private final int rows;
+    private final double cellW;
+    private final double cellH;
+    private final int[][] cells; // [row * cols + col] -> 정답 번호 (오름차순)
+
+    AnswerGrid(List<Rectangle> answers, Dimension imageSize) {
+        this.answers = answers;
+        int n = Math.max(1, answers.size());
+        int width = Math.max(1, imageSize.width);
+        int height = Math.max(1, imageSize.height);
+
+        // 칸 수 ~ 정답 수, 칸 모양은 이미지 비율을 따름
+        int c = (int) Math.ceil(Math.sqrt(n * (double) width / height));
+        this.cols = clamp(c, 1, MAX_CELLS_PER_AXIS);
+        this.rows = clamp((int) Math.ceil((double) n / cols), 1, MAX_CELLS_PER_AXIS);
+        this.cellW = (double) width / cols;
+        this.cellH = (double) height / rows;
+
+        // 1단계: 칸별 개수, 2단계: 채우기 (칸마다 정확한 크기의 배열)
+        int[] counts = new int[cols * rows];
+        for (Rectangle r : answers) {
+            forEachCell(r, cell -> counts[cell]++);
+        }
+        this.cells = new int[cols * rows][];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = counts[i] == 0 ? EMPTY : new int[counts[i]];
+            counts[i] = 0;
+        }
+        for (int index = 0; index < answers.size(); index++) {
+            int answerIndex = index;
+            forEachCell(answers.get(index), cell -> cells[cell][counts[cell]++] = answerIndex);
+        }
+    }
+
+    // (x, y)를 포함하는 정답 중 아직 찾지 않은 첫 번호.
+    // 포함하는 정답이 없거나 모두 이미 찾았으면 -1 (찾은 정답을 다시 눌러도 빗나간 클릭)
+    int find(int x, int y, FoundSet found) {
+        int col = clamp((int) (x / cellW), 0, cols - 1);
+        int row = clamp((int) (y / cellH), 0, rows - 1);
+        for (int index : cells[row * cols + col]) {
+            if (!answers.get(index).contains(x, y)) continue;
+            if (found == null || !found.isFound(index)) return index;
+        }
+        return -1;
+    }
+
+    private void forEachCell(Rectangle r, IntConsumer action) {
+        int c0 = clamp((int) (r.x / cellW), 0, cols - 1);
+        int c1 = clamp((int) ((r.x + r.width) / cellW), 0, cols - 1);
+        int r0 = clamp((int) (r.y / cellH), 0, rows - 1);
+        int r1 = clamp((int) ((r.y + r.height) / cellH), 0, rows - 1);
+        for (int row = r0; row <= r1; row++) {
+            for (int col = c0; col <= c1; col++) {
+                action.accept(row * cols + col);
+            }
+        }
+    }
+
+    private static int clamp(int v, int min, int max) {
+        return Math.max(min, Math.min(max, v));
+    }
+}
@@ -0,0 +1,148 @@
+package server;
+
+import java.util.Random;
+
+// 동시 클릭 판정 시뮬레이터 (네트워크 없이 ClockSync + ClickArbiter를 그대로 사용)
+// 플레이어마다 편도 지연, 지터, 시계 차이를 주고 같은 정답을 거의 동시에 누르게 한 뒤,
+// '먼저 도착한 패킷'과 '보정한 클릭 시각' 판정이 실제로 먼저 누른 사람을 얼마나 맞히는지 비교한다.
+//
+// 사용법: java server.ArbitrationSimulator [편도 지연 ms 목록 (쉼표 구분, 기본 10,40,120)] [시행 수 (기본 10000)]
+// 설정 (시스템 프로퍼티):
+//   sim.jitterMillis : 패킷마다 더하는 지연 흔들림 최대값 (기본 8)
+//   sim.spreadMillis : 플레이어들이 누르는 시각의 흩어짐 (기본 40)
+//   sim.skewMillis   : 클라이언트 시계 차이 최대값 (기본 2000)
+//   sim.asymmetry    : 올라가는 지연 / 내려오는 지연 비율 (기본 1.0, 대칭)
+//   lobby.arbitrationMillis, lobby.arbitrationMaxMillis : 판정 창 최소/최대 (서버와 같음)
+public class ArbitrationSimulator {
+
+    private static final int JITTER = Integer.getInteger("sim.jitterMillis", 8);
+    private static final int SPREAD = Integer.getInteger("sim.spreadMillis", 40);
+    private static final int SKEW = Integer.getInteger("sim.skewMillis", 2000);
+    private static final double ASYMMETRY = Double.parseDouble(System.getProperty("sim.asymmetry", "1.0"));
+
+    private final Random random = new Random(42);
+    private final int[] upMillis;   // 클라이언트 -> 서버
+    private final int[] downMillis; // 서버 -> 클라이언트
+    private final long[] skew;      // 클라이언트 시계 - 서버 시계
+    private final ClockSync[] clocks;
+    private int window; // 서버와 같은 방식으로 추정 RTT 범위에서 결정
+
+    ArbitrationSimulator(int[] oneWayMillis) {
+        int n = oneWayMillis.length;
+        upMillis = new int[n];
+        downMillis = new int[n];
+        skew = new long[n];
+        clocks = new ClockSync[n];
+        for (int i = 0; i < n; i++) {
+            // 왕복은 oneWay * 2로 유지하고 비율만 나눈다
+            upMillis[i] = (int) Math.round(oneWayMillis[i] * 2 * ASYMMETRY / (1 + ASYMMETRY));
+            downMillis[i] = oneWayMillis[i] * 2 - upMillis[i];
+            skew[i] = SKEW > 0 ? random.nextInt(SKEW * 2 + 1) - SKEW : 0;
+            clocks[i] = new ClockSync();
+        }
+    }
+
+    private int jitter() {
+        return JITTER > 0 ? random.nextInt(JITTER + 1) : 0;
+    }
+
+    // 서버가 PING을 보내고 PONG을 받는 과정을 시각만 계산해서 흉내 냄
+    void syncClocks(long serverNow) {
+        for (int round = 0; round < ClockSync.SAMPLES; round++) {
+            long t0 = serverNow + round * 2000L;
+            for (int i = 0; i < clocks.length; i++) {
+                long clientReceive = t0 + downMillis[i] + jitter();
+                long t1 = clientReceive + skew[i];
+                long t2 = clientReceive + upMillis[i] + jitter();
+                clocks[i].onPong(t0, t1, t2);
+            }
+        }
+        int minRtt = Integer.MAX_VALUE;
+        int maxRtt = 0;
+        for (ClockSync clock : clocks) {
+            minRtt = Math.min(minRtt, clock.estimate().rttMillis());
+            maxRtt = Math.max(maxRtt, clock.estimate().rttMillis());
+        }
+        window = ClickArbiter.windowMillis(minRtt, maxRtt);
+    }
+
+    // 시행 한 번: {실제로 먼저 누른 사람, 먼저 도착한 사람, 판정 창으로 인정된 사람}
+    int[] trial(long base) {
+        int n = clocks.length;
+        long[] clickAt = new long[n];
+        long[] arrival = new long[n];
+        int truth = 0;
+        int firstArrival = 0;
+        for (int i = 0; i < n; i++) {
+            clickAt[i] = base + random.nextInt(SPREAD + 1);
+            arrival[i] = clickAt[i] + upMillis[i] + jitter();
+            if (clickAt[i] < clickAt[truth]) truth = i;
+            if (arrival[i] < arrival[firstArrival]) firstArrival = i;
+        }
+
+        // 서버와 같은 흐름: 첫 도착에서 창이 열리고, 창이 닫힌 뒤 도착한 클릭은 이미 찾은 정답으로 처리됨
+        ClickArbiter<Integer> arbiter = new ClickArbiter<>();
+        long closeAt = arrival[firstArrival] + window;
+        for (int i = 0; i < n; i++) {
+            if (arrival[i] > closeAt) continue;
+            long clientTime = clickAt[i] + skew[i];
+            long clickTime = ClickArbiter.compensate(arrival[i], clientTime, clocks[i].estimate());
+            arbiter.offer(0, i, clickTime, arrival[i]);
+        }
+        int arbitrated = arbiter.settle(0).get(0).player();
+        return new int[] {truth, firstArrival, arbitrated};
+    }
+
+    public static void main(String[] args) {
+        int[] latencies = parseLatencies(args.length > 0 ? args[0] : "10,40,120");
+        int trials = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+        if (latencies == null || latencies.length < 2 || trials <= 0) {
+            System.out.println("사용법: java server.ArbitrationSimulator [편도 지연 ms 목록 (예: 10,40,120)] [시행 수]");
+            System.exit(2);
+        }
+
+        ArbitrationSimulator sim = new ArbitrationSimulator(latencies);
+        sim.syncClocks(1_000_000L);
+
+        int n = latencies.length;
+        int[] trueWins = new int[n];
+        int[] arrivalWins = new int[n];
+        int[] arbitratedWins = new int[n];
+        int arrivalCorrect = 0;
+        int arbitratedCorrect = 0;
+        for (int t = 0; t < trials; t++) {
+            int[] r = sim.trial(10_000_000L + t * 1000L);
+            trueWins[r[0]]++;
+            arrivalWins[r[1]]++;
+            arbitratedWins[r[2]]++;
+            if (r[1] == r[0]) arrivalCorrect++;
+            if (r[2] == r[0]) arbitratedCorrect++;
+        }
+
+        System.out.println("[시뮬레이터] 플레이어 " + n + "명, 시행 " + trials + "회, 판정 창 " + sim.window
+                + "ms, 지터 " + JITTER + "ms, 누른 시각 흩어짐 " + SPREAD + "ms, 지연 비율(up/down) " + ASYMMETRY);
+        System.out.println("  플레이어  지연(up/down)  시계차   추정RTT  추정차    실제 1등   도착순 1등   판정 1등");
+        for (int i = 0; i < n; i++) {
+            ClockSync.Estimate e = sim.clocks[i].estimate();
+            System.out.printf("  P%-7d %4d/%-4dms  %6dms  %5dms  %6dms  %7.1f%%  %9.1f%%  %8.1f%%%n",
+                    i, sim.upMillis[i], sim.downMillis[i], sim.skew[i], e.rttMillis(), e.offsetMillis(),
+                    100.0 * trueWins[i] / trials, 100.0 * arrivalWins[i] / trials, 100.0 * arbitratedWins[i] / trials);
+        }
+        System.out.printf("[시뮬레이터] 실제로 먼저 누른 사람을 맞힌 비율: 도착순 %.1f%%, 판정 창 %.1f%%%n",
+                100.0 * arrivalCorrect / trials, 100.0 * arbitratedCorrect / trials);
+    }
+
+    private static int[] parseLatencies(String list) {
+        try {
+            String[] parts = list.split(",");
+            int[] out = new int[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                out[i] = Integer.parseInt(parts[i].trim());
+                if (out[i] < 0) return null;
+            }
+            return out;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
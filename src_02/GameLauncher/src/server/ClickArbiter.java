@@ -0,0 +1,82 @@
+package server;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// 같은 정답을 거의 동시에 누른 클릭 판정
+// 먼저 도착한 패킷이 이기면 지연이 짧은 플레이어가 늘 유리하므로, 정답 하나에 첫 클릭이 오면 판정 창 동안
+// 같은 정답의 클릭을 모은 뒤 '보정한 클릭 시각'(클라이언트 시각 - 시계 차이, 서버 시계 기준)이 가장 이른 사람을 인정한다.
+// 판정 창은 참가자들의 편도 지연 차이만큼이어야 느린 사람의 클릭이 도착하므로, 그 차이로 정하되 짧게 제한한다.
+// 시각은 모두 호출하는 쪽이 넘기므로(서버 시계 ms) 시뮬레이터에서도 그대로 쓸 수 있다. 방 스레드 전용 (잠금 없음).
+final class ClickArbiter<P> {
+
+    static final int WINDOW_MILLIS = Integer.getInteger("lobby.arbitrationMillis", 50);         // 최소 판정 창
+    static final int MAX_WINDOW_MILLIS = Integer.getInteger("lobby.arbitrationMaxMillis", 150); // 최대 (정답 표시가 이만큼 늦어짐)
+    private static final int JITTER_MARGIN_MILLIS = 10;
+
+    record Claim<P>(P player, long clickTime, long arrivalTime) {}
+
+    private static final Comparator<Claim<?>> EARLIEST = Comparator
+            .comparingLong((Claim<?> c) -> c.clickTime())
+            .thenComparingLong(Claim::arrivalTime);
+
+    private final Map<Integer, List<Claim<P>>> open = new HashMap<>(); // key: 정답 번호
+
+    // 클릭 보정: 클라이언트 시각을 서버 시계로 옮긴다. 추정값이 없거나 시각이 없는(이전 버전) 클릭은 도착 시각 - 편도 지연.
+    // 조작된 시각으로 앞서지 못하도록 [도착 - RTT - 창, 도착] 범위로 자른다.
+    static long compensate(long arrivalTime, long clientTime, ClockSync.Estimate estimate) {
+        if (estimate == null) {
+            return arrivalTime;
+        }
+        long clickTime = clientTime > 0
+                ? clientTime - estimate.offsetMillis()
+                : arrivalTime - estimate.rttMillis() / 2;
+        long earliest = arrivalTime - estimate.rttMillis() - WINDOW_MILLIS;
+        return Math.max(earliest, Math.min(arrivalTime, clickTime));
+    }
+
+    // 판정 창: 편도 지연(RTT / 2)이 가장 긴 참가자와 가장 짧은 참가자의 차이 + 여유, [WINDOW, MAX_WINDOW] 범위
+    static int windowMillis(int minRttMillis, int maxRttMillis) {
+        int window = (maxRttMillis - minRttMillis) / 2 + JITTER_MARGIN_MILLIS;
+        return Math.max(WINDOW_MILLIS, Math.min(MAX_WINDOW_MILLIS, window));
+    }
+
+    // 클릭 추가. 이 정답의 첫 클릭이면 true (호출한 쪽이 판정 창 뒤 settle을 예약)
+    // 같은 사람이 창 안에서 여러 번 누르면 가장 이른 클릭만 남는다
+    boolean offer(int answerIndex, P player, long clickTime, long arrivalTime) {
+        List<Claim<P>> claims = open.get(answerIndex);
+        boolean first = claims == null;
+        if (first) {
+            claims = new ArrayList<>(2);
+            open.put(answerIndex, claims);
+        }
+        for (int i = 0; i < claims.size(); i++) {
+            Claim<P> c = claims.get(i);
+            if (c.player().equals(player)) {
+                if (clickTime < c.clickTime()) {
+                    claims.set(i, new Claim<>(player, clickTime, arrivalTime));
+                }
+                return first;
+            }
+        }
+        claims.add(new Claim<>(player, clickTime, arrivalTime));
+        return first;
+    }
+
+    // 창 닫기: 보정 시각 순으로 정렬된 클릭 (첫 번째가 인정). 열린 창이 없으면 빈 목록
+    List<Claim<P>> settle(int answerIndex) {
+        List<Claim<P>> claims = open.remove(answerIndex);
+        if (claims == null) {
+            return List.of();
+        }
+        claims.sort(EARLIEST);
+        return claims;
+    }
+
+    void clear() {
+        open.clear();
+    }
+}
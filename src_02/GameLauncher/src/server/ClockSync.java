@@ -0,0 +1,54 @@
+package server;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+// 연결 하나의 왕복 지연(RTT)과 시계 차이 추정 (ping/pong)
+// 서버가 PING(t0)을 보내면 클라이언트는 받은 즉시 PONG(t0, 클라이언트 시각 t1)으로 답하고, 서버는 t2에 받는다.
+//   RTT = t2 - t0,  시계 차이(클라이언트 - 서버) = t1 - (t0 + RTT / 2)
+// 왕복이 짧은 표본일수록 편도 지연이 대칭이라는 가정의 오차가 작으므로, 최근 SAMPLES개 중 RTT가 가장 짧은 표본을 쓴다.
+// PONG은 I/O 스레드에서, 추정값은 방 스레드에서 읽으므로 결과는 불변 객체로 바꿔 끼운다.
+class ClockSync {
+
+    static final int SAMPLES = 8;
+
+    // rttMillis: 점수판 표시용 RTT (지수 이동 평균), offsetMillis: 클라이언트 시계 - 서버 시계, bestRttMillis: offset을 얻은 표본의 RTT
+    record Estimate(int rttMillis, long offsetMillis, int bestRttMillis) {}
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final long[] rtts = new long[SAMPLES];
+    private final long[] offsets = new long[SAMPLES];
+    private int count;
+    private int next;
+    private double smoothedRtt = -1;
+    private volatile Estimate estimate; // 아직 표본이 없으면 null
+
+    // PONG 수신: t0 = 서버가 PING을 보낸 시각, t1 = 클라이언트가 답한 시각, t2 = 서버가 PONG을 받은 시각
+    void onPong(long t0, long t1, long t2) {
+        long rtt = t2 - t0;
+        if (t0 <= 0 || rtt < 0 || rtt > 60_000) {
+            return; // 위조되었거나 너무 오래된 PONG
+        }
+        long offset = t1 - (t0 + rtt / 2);
+
+        lock.lock();
+        try {
+            rtts[next] = rtt;
+            offsets[next] = offset;
+            next = (next + 1) % SAMPLES;
+            count = Math.min(count + 1, SAMPLES);
+            smoothedRtt = smoothedRtt < 0 ? rtt : smoothedRtt * 0.75 + rtt * 0.25;
+
+            int best = 0;
+            for (int i = 1; i < count; i++) {
+                if (rtts[i] < rtts[best]) best = i;
+            }
+            estimate = new Estimate((int) Math.round(smoothedRtt), offsets[best], (int) rtts[best]);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    Estimate estimate() {
+        return estimate;
+    }
+}
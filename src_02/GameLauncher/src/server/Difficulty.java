@@ -0,0 +1,34 @@
+package server;
+
+// 난이도 (프로토콜에서는 한글 이름 문자열로 주고받음)
+enum Difficulty {
+    EASY("쉬움"),
+    NORMAL("보통"),
+    HARD("어려움");
+
+    private final String label;
+
+    Difficulty(String label) {
+        this.label = label;
+    }
+
+    String label() {
+        return label;
+    }
+
+    // 한글 이름 -> 난이도 (모르는 값이면 null)
+    static Difficulty fromLabel(String label) {
+        if (label == null) return null;
+        switch (label) {
+            case "쉬움": return EASY;
+            case "보통": return NORMAL;
+            case "어려움": return HARD;
+            default: return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,52 @@
+package server;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// 라운드의 정답별 '찾음' 상태 (비트셋)
+// claim은 CAS로 한 번만 성공하므로 여러 스레드가 같은 정답을 동시에 눌러도 잠금 없이 한 명만 인정된다.
+// 남은 개수를 따로 유지하므로 '모두 찾음' 확인은 O(1).
+final class FoundSet {
+
+    private final AtomicLongArray bits;
+    private final AtomicInteger remaining;
+    private final int size;
+
+    FoundSet(int size) {
+        this.size = size;
+        this.bits = new AtomicLongArray((size + 63) >>> 6);
+        this.remaining = new AtomicInteger(size);
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isFound(int index) {
+        return (bits.get(index >>> 6) & (1L << index)) != 0;
+    }
+
+    // 처음 찾은 경우에만 true
+    boolean claim(int index) {
+        int word = index >>> 6;
+        long mask = 1L << index; // shift는 하위 6비트만 사용
+        while (true) {
+            long current = bits.get(word);
+            if ((current & mask) != 0) {
+                return false;
+            }
+            if (bits.compareAndSet(word, current, current | mask)) {
+                remaining.decrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    int remaining() {
+        return remaining.get();
+    }
+
+    boolean allFound() {
+        return remaining.get() == 0;
+    }
+}
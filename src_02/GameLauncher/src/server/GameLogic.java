@@ -1,37 +1,44 @@
 package server;
 
-import javax.imageio.ImageIO;
 import java.awt.Dimension;
-import java.awt.Graphics2D;
-import java.awt.Point;
 import java.awt.Rectangle;
-import java.awt.image.BufferedImage;
-import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileReader;
-import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
-import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
-// 정답(Rectangle)을 서버에 '수동'으로 입력, 
+// 라운드 카탈로그 관리 (서버 전체에서 하나, 모든 방이 공유)
+// 정답(Rectangle)을 서버에 '수동'으로 입력한 기본 라운드 + answers 폴더의 라운드 파일.
+// 파일은 서버 시작 시 백그라운드에서 한 번에 읽어 검증하고, 콘솔 명령으로 다시 읽을 수 있다.
+// 게임 시작(startRound)은 메모리의 스냅샷만 보므로 디스크 I/O가 없다.
 public class GameLogic {
-    private Map<String, List<Rectangle>> roundAnswers = new HashMap<>();
-    private Map<String, String> roundImagePaths = new HashMap<>();
-    private Map<String, Dimension> originalDimensions = new HashMap<>();
-    private Map<String, boolean[]> foundStatus = new HashMap<>(); 
 
-    public GameLogic() throws IOException {
+    private static final Path ANSWERS_DIR = Paths.get("answers");
+
+    private final List<RoundData> builtIn = new ArrayList<>();
+    private volatile RoundCatalog catalog;   // 교체만 하고 수정하지 않음
+    private final ImageStore images = new ImageStore();
+    private final AtomicInteger pendingLoads = new AtomicInteger(); // 대기/진행 중인 읽기 요청 수
+
+    // 다시 읽기 요청이 겹치지 않도록 한 스레드에서 순서대로
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "round-loader");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public GameLogic() {
         // 생성자에서 '정답 목록 생성' 호출
         System.out.println("[GameLogic] '쉬움' 1라운드 정답 목록 로드 중...");
-        loadAnswersFor_Easy_1(); 
+        builtIn.add(loadAnswersFor_Easy_1());
+        catalog = RoundCatalog.of(builtIn); // 파일을 다 읽기 전까지는 기본 라운드만
     }
 
-    private void loadAnswersFor_Easy_1() {
-        String key = "쉬움_1";
+    private RoundData loadAnswersFor_Easy_1() {
         List<Rectangle> answers = new ArrayList<>();
 
         answers.add(new Rectangle(114-20, 197-20, 35, 35));   // 1. 나무 위 노란 장식 ㅇ
@@ -47,112 +54,65 @@ public class GameLogic {
         answers.add(new Rectangle(429-50, 567-25, 90, 40));   // 11. 오른쪽 통 위 장식
         answers.add(new Rectangle(223-45, 211-20, 80, 40));   // 12. 나무위 초록 모자 장식
         
-        roundAnswers.put(key, answers);
-        roundImagePaths.put(key, "images/image4.png"); // 클라이언트가 볼 이미지
-        foundStatus.put(key, new boolean[answers.size()]);
-        originalDimensions.put(key, new Dimension(924, 1146)); // image4.png의 '원본' 크기
+        return new RoundData(new RoundId(Difficulty.EASY, 1),
+                "images/image4.png",                // 클라이언트가 볼 이미지
+                answers,
+                new Dimension(924, 1146));          // image4.png의 '원본' 크기
     }
 
-    public void loadRound(String difficulty, int round) {
-        String key = difficulty + "_" + round;
-        
-        // 라운드 1 외에 다른 라운드/난이도 요청 시 동적 로드
-        if (!roundAnswers.containsKey(key)) {
-            System.out.println("[GameLogic] 경고: " + key + " 정보가 미리 로드되지 않아 동적 로드 시도...");
+    // 라운드 파일을 백그라운드에서 (다시) 읽는다. 끝나면 새 스냅샷으로 교체
+    // 이미 진행 중인 게임은 이전 RoundData를 계속 쓴다 (불변이므로 안전).
+    CompletableFuture<RoundCatalog> reloadAsync() {
+        pendingLoads.incrementAndGet(); // 요청 즉시 '불러오는 중'
+        return CompletableFuture.supplyAsync(() -> {
             try {
-                 loadAnswersFromFile(difficulty, round);
-            } catch (IOException e) {
-                 System.out.println("[GameLogic] 동적 로드 실패: " + e.getMessage());
-                 key = "쉬움_1"; 
+                long start = System.nanoTime();
+                RoundCatalog loaded = RoundCatalog.load(ANSWERS_DIR, builtIn);
+                // 이미지 해시도 여기서 전부 계산 (방 스레드는 파일을 읽지 않음)
+                images.refreshAll(loaded.imagePaths());
+                catalog = loaded;
+                long ms = (System.nanoTime() - start) / 1_000_000;
+                System.out.println("[GameLogic] 라운드 " + loaded.size() + "개 준비 완료 (" + ms + "ms): " + loaded.describe());
+                for (String error : loaded.getErrors()) {
+                    System.out.println("[GameLogic] 제외된 라운드 파일 - " + error);
+                }
+                return loaded;
+            } finally {
+                pendingLoads.decrementAndGet();
             }
-        }
-        
-        int count = roundAnswers.get(key).size();
-        foundStatus.put(key, new boolean[count]);
-        System.out.println("[GameLogic] " + key + " 라운드 정답 " + count + "개 상태 초기화.");
+        }, loader);
     }
-    
-    // 텍스트 파일에서 정답 로드
-    private void loadAnswersFromFile(String difficulty, int round) throws IOException {
-        String key = difficulty + "_" + round;
-        String fileName = "answers/" + difficulty + "_" + round + ".txt";
-        
-        List<Rectangle> answers = new ArrayList<>();
-        Dimension dim = new Dimension(800, 600); // 기본값
-        File file = new File(fileName);
-        
-        if (!file.exists()) throw new IOException(fileName + " 파일이 없습니다.");
 
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            
-            // 1. 첫 줄: 원본 크기
-            if ((line = br.readLine()) != null) {
-                String[] parts = line.split(",");
-                dim = new Dimension(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()));
-            }
-            originalDimensions.put(key, dim);
-
-            // 2. 나머지: 정답 좌표
-            while ((line = br.readLine()) != null) {
-                if (line.trim().isEmpty()) continue;
-                String[] parts = line.split(",");
-                answers.add(new Rectangle(
-                    Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()),
-                    Integer.parseInt(parts[2].trim()), Integer.parseInt(parts[3].trim())
-                ));
-            }
-        } catch (Exception e) {
-            throw new IOException(fileName + " 파일 형식 오류", e);
+    // 라운드 시작: 새 찾은 상태로 시작하는 RoundPlay (카탈로그에 없으면 null)
+    RoundPlay startRound(Difficulty difficulty, int round) {
+        RoundData data = catalog.get(new RoundId(difficulty, round));
+        if (data == null) {
+            return null;
         }
-
-        roundAnswers.put(key, answers);
-        roundImagePaths.put(key, "images/" + difficulty + round + ".png"); // 예: "images/보통1.png"
-        foundStatus.put(key, new boolean[answers.size()]);
-        System.out.println("[GameLogic] " + key + " 정답 " + answers.size() + "개 (파일) 로드 완료.");
+        System.out.println("[GameLogic] " + data.getId() + " 라운드 정답 " + data.getAnswers().size() + "개 상태 초기화.");
+        return new RoundPlay(data);
     }
-    
-    public String getImagePath(String difficulty, int round) {
-        String key = difficulty + "_" + round;
-        return roundImagePaths.getOrDefault(key, "images/image4.png");
+
+    // 라운드 정보만 조회 (다음 라운드 안내용, 없으면 null)
+    RoundData findRound(Difficulty difficulty, int round) {
+        return catalog.get(new RoundId(difficulty, round));
     }
-    
-    public List<Rectangle> getOriginalAnswers(String difficulty, int round) {
-        String key = difficulty + "_" + round;
-        return roundAnswers.get(key);
+
+    // 라운드 이미지의 해시/크기 (서버에 파일이 없으면 null)
+    ImageStore.ImageInfo imageFor(RoundData data) {
+        return images.describe(data.getImagePath());
     }
-    
-    public Dimension getOriginalDimension(String difficulty, int round) {
-        String key = difficulty + "_" + round;
-        return originalDimensions.get(key);
+
+    ImageStore getImageStore() {
+        return images;
     }
 
-    public synchronized boolean checkAnswer(String difficulty, int round, int answerIndex) {
-        String key = difficulty + "_" + round;
-        boolean[] found = foundStatus.get(key);
-        
-        if (found == null || answerIndex < 0 || answerIndex >= found.length) {
-            System.out.println("[GameLogic] 판정 오류: 잘못된 인덱스 " + answerIndex);
-            return false; 
-        }
-        
-        if (found[answerIndex]) {
-            System.out.println("[GameLogic] " + key + " " + answerIndex + "번은 이미 찾음.");
-            return false; 
-        }
-        
-        found[answerIndex] = true; 
-        System.out.println("[GameLogic] " + key + " 정답 " + answerIndex + "번 찾음!");
-        return true;
+    // 백그라운드 로드 중이면 true (없는 라운드 안내 문구 구분용)
+    boolean isLoading() {
+        return pendingLoads.get() > 0;
     }
-    
-    public boolean areAllFound(String difficulty, int round) {
-        String key = difficulty + "_" + round; 
-        boolean[] found = foundStatus.get(key);
-        if (found == null) return false;
-        for (boolean f : found) {
-            if (!f) return false; 
-        }
-        return true;
+
+    RoundCatalog getCatalog() {
+        return catalog;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,60 @@
+package server;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// 응답 없는 연결 정리 (반쯤 열린 TCP: 노트북 절전, NAT 타임아웃 등)
+// 서버가 PING을 주기적으로 보내고 클라이언트가 PONG으로 답하므로, 살아 있는 연결은 적어도 PING 간격마다 무언가를 보낸다.
+// 연결마다 소켓 타임아웃을 두지 않고, 공유 타이밍 휠에 '마지막 수신 + 제한 시간' 확인 작업을 하나씩 건다.
+// 확인할 때 그 사이 받은 것이 있으면 남은 시간만큼 다시 걸기만 하므로, 패킷마다 드는 비용은 수신 시각 기록 하나뿐이다.
+// PONG을 한 번도 보내지 않은 연결(PING을 모르는 이전 버전 클라이언트)은 접속(JOIN)한 뒤에는 끊지 않는다.
+class IdleReaper {
+
+    static final long IDLE_TIMEOUT_MILLIS = Long.getLong("lobby.idleTimeoutMillis", 10_000);
+
+    // 지표
+    private final AtomicLong reaped = new AtomicLong();
+    private final AtomicLong reapedBeforeJoin = new AtomicLong();
+    private final AtomicLong idleMillisTotal = new AtomicLong(); // 정리할 때까지 무응답 시간 합 (평균용)
+    private final AtomicLong idleMillisMax = new AtomicLong();
+
+    // 새 연결 감시 시작 (JOIN 전부터: JOIN을 보내지 않는 연결도 정리)
+    void watch(PlayerConnection connection) {
+        schedule(connection, IDLE_TIMEOUT_MILLIS);
+    }
+
+    private void schedule(PlayerConnection connection, long delayMillis) {
+        TimerWheel.SHARED.schedule(() -> check(connection), delayMillis);
+    }
+
+    // 휠 스레드에서 실행 (abort는 소켓을 닫거나 I/O 스레드에 요청만 하므로 짧음)
+    private void check(PlayerConnection connection) {
+        if (connection.isClosed()) {
+            return;
+        }
+        long idleMillis = (System.nanoTime() - connection.lastReadNanos()) / 1_000_000;
+        if (idleMillis < IDLE_TIMEOUT_MILLIS) {
+            schedule(connection, IDLE_TIMEOUT_MILLIS - idleMillis);
+            return;
+        }
+        String playerName = connection.getPlayerName();
+        if (playerName != null && connection.getClock().estimate() == null) {
+            schedule(connection, IDLE_TIMEOUT_MILLIS); // 하트비트를 모르는 클라이언트
+            return;
+        }
+
+        reaped.incrementAndGet();
+        if (playerName == null) reapedBeforeJoin.incrementAndGet();
+        idleMillisTotal.addAndGet(idleMillis);
+        idleMillisMax.accumulateAndGet(idleMillis, Math::max);
+        System.out.println("[서버] " + (playerName != null ? playerName : "(접속 전)") + " 응답 없음 ("
+                + idleMillis / 1000.0 + "초). 연결을 정리합니다.");
+        connection.abort();
+    }
+
+    String describe() {
+        long count = reaped.get();
+        return "무응답으로 정리한 연결 " + count + "개 (접속 전 " + reapedBeforeJoin.get() + "개)"
+                + (count > 0 ? ", 평균 " + idleMillisTotal.get() / count + "ms / 최대 " + idleMillisMax.get() + "ms 무응답" : "")
+                + ", 제한 " + IDLE_TIMEOUT_MILLIS + "ms";
+    }
+}
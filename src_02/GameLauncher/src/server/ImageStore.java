@@ -0,0 +1,124 @@
+package server;
+
+import model.ContentHash;
+import model.GamePacket;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// 라운드 이미지 전송 (서버 쪽)
+// 이미지 경로마다 SHA-256 해시와 크기를 한 번 계산해 두고 ROUND_START에 실어 보낸다.
+// 클라이언트는 캐시에 없을 때만 IMAGE_REQUEST를 보내고, 서버는 파일에서 조각을 읽어 IMAGE_CHUNK로 보낸다.
+//
+// 흐름 제어: 요청 하나에 요청 길이(최대 MAX_REQUEST)만큼만 보낸다. 클라이언트가 그만큼 받으면 다음 위치를 다시
+// 요청하므로 큰 이미지가 송신 대기열을 채워 게임 패킷을 밀어내지 않는다.
+class ImageStore {
+
+    static final int CHUNK_SIZE = Integer.getInteger("lobby.image.chunkBytes", 64 * 1024);
+    static final int MAX_REQUEST = CHUNK_SIZE * 16; // 요청 하나로 보낼 최대 바이트
+
+    record ImageInfo(String path, String hash, int size, Path file) {}
+
+    // 해시 실패 표시 (ConcurrentHashMap에 null을 넣을 수 없어서). 다음 reload 때까지 다시 읽지 않는다.
+    private static final ImageInfo MISSING = new ImageInfo(null, null, -1, null);
+
+    private final Map<String, ImageInfo> byPath = new ConcurrentHashMap<>();
+    private final Map<String, ImageInfo> byHash = new ConcurrentHashMap<>();
+
+    // 파일 읽기는 I/O 스레드(특히 NIO Selector)나 방 스레드가 아닌 곳에서
+    private final ExecutorService sender = Executors.newFixedThreadPool(2, r -> {
+        Thread t = new Thread(r, "image-sender");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // 이미지 해시/크기 (파일이 없거나 읽을 수 없으면 null, 이때 클라이언트는 기존처럼 로컬 경로를 쓴다)
+    // 미리 계산해 둔 값만 본다 (방 스레드에서 호출되므로 파일을 읽지 않음). 아직 계산 전이어도 null.
+    ImageInfo describe(String path) {
+        ImageInfo info = byPath.get(path);
+        return info == MISSING ? null : info;
+    }
+
+    // 라운드 카탈로그를 읽은 스레드에서 호출. 이미지마다 독립적이므로 병렬로 계산
+    void refreshAll(Collection<String> paths) {
+        paths.parallelStream().forEach(this::refresh);
+    }
+
+    // 파일을 다시 읽어 해시 계산 (바뀐 파일은 새 해시로 등록, 이전 해시 요청은 크기 검사에서 걸러짐)
+    private ImageInfo refresh(String path) {
+        ImageInfo info;
+        Path file = Paths.get(path);
+        try (InputStream in = Files.newInputStream(file)) {
+            MessageDigest digest = ContentHash.newDigest();
+            byte[] buf = new byte[64 * 1024];
+            long size = 0;
+            int n;
+            while ((n = in.read(buf)) > 0) {
+                digest.update(buf, 0, n);
+                size += n;
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("이미지가 너무 큽니다.");
+            }
+            info = new ImageInfo(path, ContentHash.toHex(digest.digest()), (int) size, file);
+        } catch (IOException e) {
+            System.out.println("[서버] 이미지 해시 실패 (" + path + "): " + e.getMessage());
+            byPath.put(path, MISSING);
+            return null;
+        }
+        byHash.put(info.hash(), info);
+        byPath.put(path, info);
+        return info;
+    }
+
+    // IMAGE_REQUEST 처리: 요청 위치부터 요청 길이만큼 조각으로 보낸다. 모르는 해시(카탈로그 이미지가 아님)는 거절
+    void handleRequest(PlayerConnection handler, GamePacket packet) {
+        String hash = packet.getImageHash();
+        ImageInfo info = hash != null ? byHash.get(hash) : null;
+        int offset = packet.getImageOffset();
+        if (info == null || offset < 0 || offset >= info.size()) {
+            handler.sendPacket(new GamePacket(GamePacket.Type.MESSAGE, "SERVER", "오류: 요청한 이미지를 보낼 수 없습니다."));
+            return;
+        }
+        int requested = packet.getImageSize() > 0 ? Math.min(packet.getImageSize(), MAX_REQUEST) : CHUNK_SIZE;
+        int end = (int) Math.min((long) offset + requested, info.size());
+        sender.execute(() -> sendRange(handler, info, offset, end));
+    }
+
+    private void sendRange(PlayerConnection handler, ImageInfo info, int offset, int end) {
+        try (FileChannel channel = FileChannel.open(info.file(), StandardOpenOption.READ)) {
+            if (channel.size() != info.size()) {
+                // 해시를 계산한 뒤 파일이 바뀜. 잘못된 조각을 보내지 않음 (reload 후 다시 계산됨)
+                throw new IOException("파일 크기가 바뀌었습니다.");
+            }
+            int position = offset;
+            while (position < end) {
+                int length = Math.min(CHUNK_SIZE, end - position);
+                ByteBuffer chunk = ByteBuffer.allocate(length);
+                while (chunk.hasRemaining()) {
+                    if (channel.read(chunk, position + chunk.position()) < 0) {
+                        throw new IOException("파일이 예상보다 짧습니다.");
+                    }
+                }
+                handler.sendPacket(new GamePacket(GamePacket.Type.IMAGE_CHUNK,
+                        info.hash(), position, info.size(), chunk.array()));
+                position += length;
+            }
+        } catch (IOException e) {
+            System.out.println("[서버] 이미지 전송 실패 (" + info.path() + "): " + e.getMessage());
+            handler.sendPacket(new GamePacket(GamePacket.Type.MESSAGE, "SERVER", "오류: 이미지를 보낼 수 없습니다."));
+        }
+    }
+}
@@ -1,65 +1,88 @@
 package server;
 
+import model.EncodedPacket;
 import model.GamePacket;
+import model.PacketConnection;
+import model.RoomInfo;
 
-import java.awt.Dimension;
-import java.awt.Rectangle;
+import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.io.InputStreamReader;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 //대기방(Lobby) 기능을 지원하는 게임 서버
 public class LobbyServer {
 
     private static final int PORT = 9999;
+    private static final int NIO_WORKERS = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private static final int QUEUE_REPORT_SECONDS = Integer.getInteger("lobby.outbound.reportSeconds", 30);
+    private static final int PING_MILLIS = Integer.getInteger("lobby.pingMillis", 2000);
+    private static final int MAX_ROOMS = Integer.getInteger("lobby.maxRooms", 1000);
+    private static final int MAX_ROOM_NAME = 20;
+    private static final long RESUME_GRACE_MILLIS = Long.getLong("lobby.resumeGraceMillis", 30_000);
     private ServerSocket listener = null;
 
-    // 접속한 모든 클라이언트 (key: playerName)
-    private final Map<String, ClientHandler> clients = new ConcurrentHashMap<>();
-    
-    // 플레이어 준비 상태 (key: playerName, value: isReady)
-    private final Map<String, Boolean> playerReadyStatus = new ConcurrentHashMap<>();
-    
-    // 점수 관리
-    private final Map<String, Integer> scores = new ConcurrentHashMap<>();
-    
-    private GameLogic gameLogic;
-    private int currentRound = 0;
-    private String hostName = null; // 방장 닉네임
+    // 접속한 모든 클라이언트 (key: playerName, 닉네임은 서버 전체에서 유일)
+    private final Map<String, PlayerConnection> clients = new ConcurrentHashMap<>();
 
-    private String gameState = "LOBBY";
-    private String currentDifficulty = "쉬움";
-    private String currentGameMode = "협동";
-    
+    // 재접속용 세션 토큰 (key: playerName). JOIN 때 발급하고, 퇴장이 확정되면 지운다.
+    // 게임 중 끊긴 연결은 RESUME_GRACE_MILLIS 동안 clients에 남아 닉네임과 방 자리를 지킨다.
+    private final Map<String, String> sessions = new ConcurrentHashMap<>();
+    private final SecureRandom tokenRandom = new SecureRandom();
 
-    public LobbyServer() {
+    // 방 목록 (key: 방 번호). 게임 상태와 잠금은 방마다 따로 가진다.
+    private final Map<Integer, Room> rooms = new ConcurrentHashMap<>();
+    private final AtomicInteger nextRoomId = new AtomicInteger(1);
+    private Room defaultRoom; // 접속 시 들어가는 방 (비어도 닫지 않음, create에서 만듦)
+
+    // 라운드 목록 (모든 방이 공유, 게임 시작 시 파일을 읽지 않음)
+    private final GameLogic gameLogic = new GameLogic();
+
+    // 응답 없는 연결 정리 (공유 타이밍 휠 사용, 연결마다 소켓 타임아웃을 두지 않음)
+    private final IdleReaper idleReaper = new IdleReaper();
+
+    private LobbyServer() {
         System.out.println("[서버] 로비 서버가 시작 준비 중입니다...");
-        try {
-            this.gameLogic = new GameLogic(); // GameLogic 초기화
-            System.out.println("[서버] 게임 로직 초기화 완료.");
-            
-        } catch (IOException e) {
-            System.out.println("[서버] 치명적 오류: 게임 정답 이미지 로드 실패! 'images' 폴더를 확인하세요.");
-            e.printStackTrace();
-            System.exit(1);
-        }
+        gameLogic.reloadAsync(); // 접속을 받는 동안 백그라운드에서 라운드 파일 검증/적재
+    }
+
+    // 기본 방은 서버 객체가 다 만들어진 뒤에 연다 (생성자에서 방에 this를 넘기지 않도록)
+    static LobbyServer create() {
+        LobbyServer server = new LobbyServer();
+        server.defaultRoom = new Room(server, server.gameLogic, server.nextRoomId.getAndIncrement(), "기본 방", true);
+        server.rooms.put(server.defaultRoom.getId(), server.defaultRoom);
+        return server;
     }
 
-    public void run() {
+    // virtualThreads: true면 연결마다 가상 스레드, false면 플랫폼 스레드
+    public void run(boolean virtualThreads) {
+        startQueueReporter();
+        startPinger();
         try {
             listener = new ServerSocket(PORT);
-            System.out.println("[서버] 대기방 서버가 " + PORT + " 포트에서 대기 중입니다...");
+            System.out.println("[서버] 대기방 서버가 " + PORT + " 포트에서 대기 중입니다... ("
+                    + (virtualThreads ? "가상 스레드" : "플랫폼 스레드") + ")");
+
+            Thread.Builder threadBuilder = virtualThreads
+                    ? Thread.ofVirtual().name("client-", 0)
+                    : Thread.ofPlatform().name("client-", 0);
 
             while (true) {
                 Socket socket = listener.accept();
-                ClientHandler clientHandler = new ClientHandler(socket);
-                clientHandler.start();
+                threadBuilder.start(new ClientHandler(socket, threadBuilder));
             }
 
         } catch (IOException e) {
@@ -69,6 +92,88 @@ public class LobbyServer {
         }
     }
     
+    // 서버 콘솔 명령: reload (라운드 파일 다시 읽기), rounds (라운드 목록), conns (접속/정리 현황)
+    void startConsole() {
+        Thread console = new Thread(() -> {
+            BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+            try {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    switch (line.trim()) {
+                        case "" -> { }
+                        case "reload" -> gameLogic.reloadAsync();
+                        case "rounds" -> System.out.println("[서버] 라운드 "
+                                + gameLogic.getCatalog().size() + "개: " + gameLogic.getCatalog().describe()
+                                + (gameLogic.isLoading() ? " (불러오는 중)" : ""));
+                        case "conns" -> System.out.println("[서버] 접속 " + clients.size() + "명 (세션 " + sessions.size() + "개), " + idleReaper.describe());
+                        default -> System.out.println("[서버] 명령: reload (라운드 파일 다시 읽기), rounds (라운드 목록), conns (접속/정리 현황)");
+                    }
+                }
+            } catch (IOException e) {
+                System.out.println("[서버] 콘솔 입력 오류: " + e.getMessage());
+            }
+        }, "console");
+        console.setDaemon(true);
+        console.start();
+    }
+
+    // 주기적으로 연결별 송신 대기열 지표 출력 (밀린 연결이 있을 때만)
+    void startQueueReporter() {
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "queue-reporter");
+            t.setDaemon(true);
+            return t;
+        });
+        reporter.scheduleAtFixedRate(this::reportQueues, QUEUE_REPORT_SECONDS, QUEUE_REPORT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    // 주기적으로 모든 연결에 PING (RTT/시계 차이 추정), 게임 중인 방에는 RTT 목록 전송
+    void startPinger() {
+        ScheduledExecutorService pinger = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "pinger");
+            t.setDaemon(true);
+            return t;
+        });
+        pinger.scheduleAtFixedRate(this::pingAll, PING_MILLIS, PING_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private void pingAll() {
+        EncodedPacket ping = pingPacket();
+        for (PlayerConnection c : clients.values()) {
+            c.sendPacket(ping);
+        }
+        for (Room room : rooms.values()) {
+            room.publishLatencies();
+        }
+    }
+
+    // PING/PONG은 바이너리 클라이언트만 안다 (Java 직렬화 클라이언트에는 보내지 않음)
+    private static EncodedPacket pingPacket() {
+        return EncodedPacket.binaryOnly(new GamePacket(GamePacket.Type.PING, System.currentTimeMillis()));
+    }
+
+    // 새 연결을 무응답 감시 대상에 등록 (엔진이 접속을 받을 때 호출)
+    void watchIdle(PlayerConnection connection) {
+        idleReaper.watch(connection);
+    }
+
+    private void reportQueues() {
+        boolean backlog = false;
+        for (PlayerConnection c : clients.values()) {
+            OutboundQueue q = c.getOutboundQueue();
+            if (q.depth() > 0 || q.dropped() > 0) backlog = true;
+        }
+        if (!backlog) return;
+
+        StringBuilder sb = new StringBuilder("[서버] 송신 대기열 (현재/최대/폐기)");
+        for (PlayerConnection c : clients.values()) {
+            OutboundQueue q = c.getOutboundQueue();
+            sb.append("\n  ").append(c.getPlayerName()).append(": ")
+              .append(q.depth()).append(" / ").append(q.maxDepth()).append(" / ").append(q.dropped());
+        }
+        System.out.println(sb);
+    }
+
     private void closeServer() {
         try {
             if (listener != null && !listener.isClosed()) listener.close();
@@ -77,114 +182,135 @@ public class LobbyServer {
         }
     }
     
-    // --- 클라이언트 핸들러 (내부 클래스) ---
-    private class ClientHandler extends Thread {
+    // --- 클라이언트 핸들러 (내부 클래스, 스레드 방식 엔진) ---
+    // 읽기는 이 스레드가, 쓰기는 송신 대기열을 비우는 별도 writer 스레드가 맡는다
+    private class ClientHandler implements Runnable, PlayerConnection {
         private final Socket socket;
-        private ObjectOutputStream out;
-        private ObjectInputStream in;
+        private final Thread.Builder threadBuilder;
+        private final OutboundQueue outbound = new OutboundQueue();
+        private final ClockSync clock = new ClockSync();
+        private PacketConnection connection;
         private String playerName;
+        private volatile Room room;
+        private volatile long lastReadNanos = System.nanoTime();
 
-        public ClientHandler(Socket socket) {
+        public ClientHandler(Socket socket, Thread.Builder threadBuilder) {
             this.socket = socket;
+            this.threadBuilder = threadBuilder;
         }
 
         public void run() {
+            boolean joined = false;
+            watchIdle(this); // 형식 판별 전에 멈춘 연결도 정리
             try {
-                in = new ObjectInputStream(socket.getInputStream());
-                out = new ObjectOutputStream(socket.getOutputStream());
-
-                GamePacket joinPacket = (GamePacket) in.readObject();
-                if (joinPacket.getType() == GamePacket.Type.JOIN) {
-                    this.playerName = joinPacket.getSender();
-                    
-                    if (!gameState.equals("LOBBY")) {
-                        sendPacket(new GamePacket(GamePacket.Type.MESSAGE, "SERVER", 
-                                     "오류: 이미 게임이 시작되었습니다."));
-                        socket.close();
-                        return;
-                    }
-                    
-                    if (clients.containsKey(this.playerName)) {
-                        sendPacket(new GamePacket(GamePacket.Type.MESSAGE, "SERVER", 
-                                     "오류: '" + this.playerName + "' 닉네임이 이미 사용 중입니다."));
-                        socket.close();
-                        return;
-                    }
-                    
-                    // 접속 성공
-                    System.out.println("[서버] " + this.playerName + " 님이 대기방에 접속했습니다.");
-                    clients.put(this.playerName, this);
-                    
-                    if (clients.size() == 1) {  // 현재 클라이언트 크기가 1일 때, 방금 접속한 클라이언트가 첫 번째 클라이언트로 방장 설정
-                        hostName = this.playerName;
-                        System.out.println("[서버] " + this.playerName + " 님이 방장이 되었습니다.");
-                    }
-                    
-                    playerReadyStatus.put(this.playerName, false);
-                    
-                    sendPacket(new GamePacket(GamePacket.Type.MESSAGE, "[서버]", 
-                                 this.playerName + " 님 환영합니다!"));
-                    
-                    broadcast(new GamePacket(GamePacket.Type.MESSAGE, "[서버]", 
-                                 this.playerName + " 님이 들어왔습니다."));
-                    
-                    broadcastLobbyUpdate();
-
-                } else {
-                    socket.close();
+                connection = PacketConnection.accept(socket); // 프로토콜 형식 판별
+                threadBuilder.start(this::writeLoop);
+
+                GamePacket joinPacket = connection.readPacket();
+                lastReadNanos = System.nanoTime();
+                joined = handleJoin(this, joinPacket);
+                if (!joined) {
+                    close();
                     return;
                 }
 
                 while (true) {
-                    GamePacket packet = (GamePacket) in.readObject();
+                    GamePacket packet = connection.readPacket();
+                    lastReadNanos = System.nanoTime();
                     handlePacket(this, packet);
                 }
 
             } catch (Exception e) {
                 System.out.println("[서버] " + playerName + " 연결 끊김.");
+                abort();
             } finally {
-                handleDisconnect();
+                if (joined) handleDisconnect(this);
+                close();
             }
         }
-        
-        public void sendPacket(GamePacket packet) {
+
+        // 송신 대기열 -> 소켓 (대기열이 닫히고 비면 소켓을 닫고 종료)
+        private void writeLoop() {
             try {
-                if (out != null) {
-                    out.writeObject(packet);
-                    out.flush();
-                }
-            } catch (IOException e) { }
-        }
-        
-        private void handleDisconnect() {
-            if (playerName != null) {
-                clients.remove(playerName);
-                scores.remove(playerName);
-                playerReadyStatus.remove(playerName); 
-                System.out.println("[서버] " + playerName + " 님이 퇴장했습니다.");
-                
-                // 방장이 나갔을 때 가장 먼저 접근 가능한 닉네임을 방장으로 설정
-                if (playerName.equals(hostName) && clients.size() > 0) {
-                    hostName = clients.keySet().iterator().next();
-                    System.out.println("[서버] " + hostName + " 님이 새 방장이 되었습니다.");
-                }
-                
-                // 모든 클라이언트가 퇴장하면 방장 이름은 null로 설정
-                if (clients.isEmpty()) {
-                    System.out.println("[서버] 모든 유저 퇴장. 대기방으로 리셋합니다.");
-                    gameState = "LOBBY";
-                    currentRound = 0;
-                    hostName = null;
-                }
-                
-                if (gameState.equals("LOBBY")) {
-                    broadcastLobbyUpdate();
-                } else {
-                    broadcast(new GamePacket(GamePacket.Type.MESSAGE, "SERVER", 
-                              playerName + " 님이 퇴장했습니다."));
-                    broadcast(new GamePacket(GamePacket.Type.SCORE, getScoreboardString()));
+                EncodedPacket packet;
+                while ((packet = outbound.take()) != null) {
+                    connection.writePacket(packet);
                 }
+            } catch (IOException | InterruptedException e) {
+                // 소켓 오류: 읽기 쪽도 곧 실패하며 퇴장 처리됨
+            } finally {
+                closeSocket();
             }
+        }
+
+        @Override
+        public String getPlayerName() {
+            return playerName;
+        }
+
+        @Override
+        public void setPlayerName(String playerName) {
+            this.playerName = playerName;
+        }
+
+        @Override
+        public Room getRoom() {
+            return room;
+        }
+
+        @Override
+        public void setRoom(Room room) {
+            this.room = room;
+        }
+
+        @Override
+        public void sendPacket(GamePacket packet) {
+            sendPacket(new EncodedPacket(packet));
+        }
+
+        // 대기열에 넣기만 하고 바로 반환 (게임 로직이 소켓 쓰기로 멈추지 않음)
+        @Override
+        public void sendPacket(EncodedPacket packet) {
+            if (!outbound.offer(packet)) {
+                System.out.println("[서버] " + playerName + " 송신 대기열 초과(" + OutboundQueue.CAPACITY + "). 연결을 끊습니다.");
+                abort();
+            }
+        }
+
+        @Override
+        public OutboundQueue getOutboundQueue() {
+            return outbound;
+        }
+
+        @Override
+        public ClockSync getClock() {
+            return clock;
+        }
+
+        @Override
+        public long lastReadNanos() {
+            return lastReadNanos;
+        }
+
+        @Override
+        public boolean isClosed() {
+            return socket.isClosed();
+        }
+
+        // 남은 패킷을 보낸 뒤 닫힘
+        @Override
+        public void close() {
+            outbound.close();
+        }
+
+        // 즉시 닫음: 막혀 있는 읽기/쓰기를 모두 깨운다
+        @Override
+        public void abort() {
+            outbound.close();
+            closeSocket();
+        }
+
+        private void closeSocket() {
             try {
                 if (socket != null) socket.close();
             } catch (IOException e) {
@@ -193,169 +319,243 @@ public class LobbyServer {
         }
     }
     
-    // --- 서버 메인 로직 (synchronized) ---
-
-    // 패킷 처리 로직
-    private synchronized void handlePacket(ClientHandler handler, GamePacket packet) throws IOException { // IOException 제거
-        
-        if (!gameState.equals("IN_GAME")) { // 게임 중이 아닐 때
-            switch (packet.getType()) {
-                case MESSAGE:
-                    System.out.println("[대기방 채팅] " + packet.getSender() + ": " + packet.getMessage());
-                    broadcast(packet);
-                    break;
-                case READY_STATUS:
-                    playerReadyStatus.put(handler.playerName, packet.isReady());
-                    System.out.println("[서버] " + handler.playerName + " 준비 상태: " + packet.isReady());
-                    broadcastLobbyUpdate(); 
-                    break;
-                case SETTINGS_UPDATE:
-                    if (handler.playerName.equals(hostName)) {
-                        currentDifficulty = packet.getDifficulty();
-                        currentGameMode = packet.getGameMode();
-                        System.out.println("[서버] 방장이 설정을 변경: " + currentDifficulty + "/" + currentGameMode);
-                        broadcastLobbyUpdate(); 
-                    }
-                    break;
-                case START_GAME_REQUEST:
-                    if (handler.playerName.equals(hostName)) {
-                        System.out.println("[서버] " + handler.playerName + " 님이 게임 시작 요청.");
-                        
-                        boolean allReady = true;
-                        for (Map.Entry<String, Boolean> entry : playerReadyStatus.entrySet()) {
-                            if (!entry.getKey().equals(hostName) && !entry.getValue()) {
-                                allReady = false; 
-                                break;
-                            }
-                        }
-
-                        if (!allReady) {
-                             handler.sendPacket(new GamePacket(GamePacket.Type.MESSAGE, "SERVER", 
-                                                "오류: 모든 참여자가 '준비 완료' 상태여야 합니다."));
-                             return;
-                        }
-                        
-                        if (clients.size() < 1) { // 1인 테스트용
-                             handler.sendPacket(new GamePacket(GamePacket.Type.MESSAGE, "SERVER", 
-                                                "오류: 최소 2명 이상이어야 시작할 수 있습니다."));
-                             return;
-                        }
-                        
-                        // --- 게임 시작 ---
-                        currentDifficulty = packet.getDifficulty();
-                        currentGameMode = packet.getGameMode();
-
-						currentRound = 1;
-                        gameLogic.loadRound(currentDifficulty, currentRound); 
-						gameState = "IN_GAME"; 
-						
-						System.out.println("[서버] " + currentDifficulty + "/" + currentGameMode + " 모드로 게임을 시작합니다.");
-						
-						broadcast(new GamePacket(GamePacket.Type.ROUND_START, 
-						    currentRound, 
-						    gameLogic.getImagePath(currentDifficulty, currentRound),
-						    gameLogic.getOriginalAnswers(currentDifficulty, currentRound),
-						    gameLogic.getOriginalDimension(currentDifficulty, currentRound)
-						));
-						
-						scores.clear();
-						for (String playerName : clients.keySet()) {
-						    scores.put(playerName, 0);
-						}
-						broadcast(new GamePacket(GamePacket.Type.SCORE, getScoreboardString()));
-                    }
-                    break;
-                default:
-                    System.out.println("[서버] 대기방 상태에서 잘못된 패킷 수신: " + packet.getType());
-            }
+    // --- 접속 / 퇴장 처리 (엔진 공통) ---
+
+    // JOIN 패킷 처리. 거부되면 false (호출한 엔진이 연결을 닫는다)
+    // 접속하면 기본 방에 들어간다 (기본 방이 게임 중이면 방 목록만 받고 대기)
+    boolean handleJoin(PlayerConnection handler, GamePacket joinPacket) {
+        if (joinPacket.getType() != GamePacket.Type.JOIN) {
+            return false;
         }
-        
-        else { // 게임 중일 때
-             switch (packet.getType()) {
-                 case CLICK:
-                    String difficulty = currentDifficulty; // (O) 서버의 현재 난이도 사용
-                    
-                    int answerIndex = packet.getAnswerIndex();
-                    System.out.println("[서버] " + handler.playerName + " 클릭: " + answerIndex + "번");
-                    
-                    boolean isCorrect = gameLogic.checkAnswer(
-                                            difficulty, 
-                                            currentRound, 
-                                            answerIndex
-                                            );
-                    
-                    String resultMsg;
-                    
-                    // --- (점수 계산 로직 추가) ---
-                    if (isCorrect) {
-                        resultMsg = "정답!";
-                        scores.put(handler.playerName, scores.get(handler.playerName) + 10);
-                    } else {
-                        resultMsg = "오답 (또는 이미 찾음)!";
-                        scores.put(handler.playerName, scores.get(handler.playerName) - 5);
-                    }
-                    
-                    // 1. 클릭 결과 전송
-                    broadcast(new GamePacket(GamePacket.Type.RESULT, 
-                                handler.playerName, answerIndex, isCorrect, resultMsg));
-                    
-                    // 2. 점수판 갱신
-                    broadcast(new GamePacket(GamePacket.Type.SCORE, getScoreboardString()));
-                    // --------------------------
-
-                    // 3. 모든 정답 찾았는지 확인
-                    if (isCorrect && gameLogic.areAllFound(difficulty, currentRound)) {
-                        broadcast(new GamePacket(GamePacket.Type.GAME_OVER, 
-                                  "게임 클리어! 모든 정답을 찾았습니다."));
-                        gameState = "LOBBY"; 
-                        currentRound = 0;
-                        broadcastLobbyUpdate(); 
-                    }
-                    break;
-                    
-                case MESSAGE:
-                    System.out.println("[인게임 채팅] " + packet.getSender() + ": " + packet.getMessage());
-                    broadcast(packet);
-                    break;
-                 default:
-                    System.out.println("[서버] 인게임 상태에서 잘못된 패킷 수신: " + packet.getType());
-             }
+        String playerName = joinPacket.getSender();
+        if (playerName == null || playerName.isEmpty()) {
+            return false;
+        }
+        if (joinPacket.getSessionToken() != null) {
+            return resumeSession(handler, playerName, joinPacket.getSessionToken());
+        }
+
+        if (clients.putIfAbsent(playerName, handler) != null) {
+            handler.sendPacket(new GamePacket(GamePacket.Type.MESSAGE, "SERVER", 
+                         "오류: '" + playerName + "' 닉네임이 이미 사용 중입니다."));
+            return false;
         }
+
+        // 접속 성공
+        handler.setPlayerName(playerName);
+        System.out.println("[서버] " + playerName + " 님이 접속했습니다.");
+
+        handler.sendPacket(new GamePacket(GamePacket.Type.MESSAGE, "[서버]", 
+                     playerName + " 님 환영합니다!"));
+        handler.sendPacket(pingPacket()); // 첫 게임 전에 RTT/시계 차이 표본을 받아 둠
+
+        // 재접속용 토큰 (토큰을 모르는 Java 직렬화 클라이언트에는 보내지 않음)
+        byte[] tokenBytes = new byte[16];
+        tokenRandom.nextBytes(tokenBytes);
+        String token = HexFormat.of().formatHex(tokenBytes);
+        sessions.put(playerName, token);
+        handler.sendPacket(EncodedPacket.binaryOnly(sessionPacket(playerName, token)));
+
+        enterRoom(handler, defaultRoom);
+        return true;
     }
-    
-    // 모든 대기방 클라이언트에게 현재 유저 목록/설정 전송
-    private synchronized void broadcastLobbyUpdate() {
-        broadcast(new GamePacket(
-            GamePacket.Type.LOBBY_UPDATE,
-            hostName,
-            new ConcurrentHashMap<>(playerReadyStatus), // 복사본 생성
-            currentDifficulty,
-            currentGameMode
-        ));
+
+    // 재접속 JOIN: 토큰이 맞으면 남겨 둔 자리(또는 아직 끊긴 줄 모르는 이전 연결)를 새 연결로 바꾼다
+    // 성공하면 첫 응답이 SESSION이므로 클라이언트는 그것으로 성공 여부를 판단한다
+    private boolean resumeSession(PlayerConnection handler, String playerName, String token) {
+        if (!token.equals(sessions.get(playerName))) {
+            handler.sendPacket(new GamePacket(GamePacket.Type.MESSAGE, "SERVER",
+                         "오류: 재접속할 수 있는 시간이 지났습니다."));
+            return false;
+        }
+        PlayerConnection previous = clients.put(playerName, handler);
+        sessions.put(playerName, token); // 그 사이 대기 시간이 끝나 지워졌어도 다시 쓸 수 있게
+        handler.setPlayerName(playerName);
+        handler.sendPacket(EncodedPacket.binaryOnly(sessionPacket(playerName, token)));
+        handler.sendPacket(new GamePacket(GamePacket.Type.MESSAGE, "[서버]",
+                     playerName + " 님 다시 접속했습니다."));
+        handler.sendPacket(pingPacket());
+
+        Room room = previous != null ? previous.getRoom() : null;
+        if (previous != null && previous != handler) {
+            previous.abort(); // 반쯤 열린 이전 연결: 퇴장 처리는 clients에서 이미 바뀌었으므로 건너뜀
+        }
+        System.out.println("[서버] " + playerName + " 님이 다시 접속했습니다.");
+
+        if (room == null) {
+            enterRoom(handler, defaultRoom);
+            return true;
+        }
+        handler.setRoom(room);
+        room.resume(handler);
+        return true;
     }
 
-    // 접속한 '모든' 클라이언트에게 패킷 전송
-    private synchronized void broadcast(GamePacket packet) {
-        for (ClientHandler handler : clients.values()) {
-            handler.sendPacket(packet);
+    private GamePacket sessionPacket(String playerName, String token) {
+        return new GamePacket(GamePacket.Type.SESSION, playerName, null, false, token);
+    }
+
+    // 접속에 성공했던 연결이 끊겼을 때 호출
+    // 게임 중이면 바로 퇴장시키지 않고 RESUME_GRACE_MILLIS 동안 자리를 남겨 둔다
+    void handleDisconnect(PlayerConnection handler) {
+        String playerName = handler.getPlayerName();
+        if (playerName == null || clients.get(playerName) != handler) {
+            return;
+        }
+        // PONG을 한 번도 보내지 않은 연결은 토큰을 받지 못하는 이전 버전 클라이언트이므로 바로 퇴장
+        Room room = handler.getRoom();
+        if (RESUME_GRACE_MILLIS > 0 && room != null && room.isInGame() && sessions.containsKey(playerName)
+                && handler.getClock().estimate() != null) {
+            room.suspend(handler);
+            TimerWheel.SHARED.schedule(() -> expireSession(handler), RESUME_GRACE_MILLIS);
+            System.out.println("[서버] " + playerName + " 님 연결 끊김. " + RESUME_GRACE_MILLIS / 1000.0
+                    + "초 동안 재접속을 기다립니다.");
+            return;
+        }
+        // 방 퇴장 이벤트를 먼저 넣어야 같은 닉네임의 재입장보다 앞서 처리된다
+        leaveRoom(handler);
+        clients.remove(playerName, handler);
+        sessions.remove(playerName);
+        System.out.println("[서버] " + playerName + " 님이 퇴장했습니다.");
+    }
+
+    // 재접속 대기 시간 초과 (휠 스레드: 맵 정리와 방 이벤트 넣기만 함)
+    private void expireSession(PlayerConnection handler) {
+        String playerName = handler.getPlayerName();
+        if (!clients.remove(playerName, handler)) {
+            return; // 그 사이 다시 접속함
+        }
+        sessions.remove(playerName);
+        leaveRoom(handler);
+        System.out.println("[서버] " + playerName + " 님이 재접속하지 않아 퇴장 처리했습니다.");
+    }
+
+    // 패킷 처리: 방 이동/목록은 여기서, 나머지는 현재 방의 Mailbox로 넘긴다
+    // (연결별로 I/O 스레드 하나가 순서대로 호출하므로 getRoom/setRoom은 경쟁하지 않음)
+    void handlePacket(PlayerConnection handler, GamePacket packet) {
+        if (packet.getType() == null) {
+            handler.sendPacket(new GamePacket(GamePacket.Type.MESSAGE, "SERVER", "오류: 알 수 없는 패킷입니다."));
+            return;
+        }
+        switch (packet.getType()) {
+            case PONG:
+                handler.getClock().onPong(packet.getServerTime(), packet.getClientTime(), System.currentTimeMillis());
+                return;
+            case ROOM_LIST:
+                sendRoomList(handler);
+                return;
+            case IMAGE_REQUEST:
+                gameLogic.getImageStore().handleRequest(handler, packet); // 방과 무관, 별도 스레드에서 전송
+                return;
+            case ROOM_CREATE:
+                createRoom(handler, packet.getRoomName());
+                return;
+            case ROOM_JOIN:
+                joinRoom(handler, packet.getRoomId());
+                return;
+            case ROOM_LEAVE:
+                leaveRoom(handler);
+                sendRoomList(handler);
+                return;
+            default:
+                break;
+        }
+
+        Room room = handler.getRoom();
+        if (room == null) {
+            handler.sendPacket(new GamePacket(GamePacket.Type.MESSAGE, "SERVER", 
+                         "오류: 먼저 방에 입장하세요."));
+            return;
+        }
+        room.handlePacket(handler, packet);
+    }
+
+    // --- 방 관리 ---
+
+    private void createRoom(PlayerConnection handler, String roomName) {
+        if (rooms.size() >= MAX_ROOMS) {
+            handler.sendPacket(new GamePacket(GamePacket.Type.MESSAGE, "SERVER", 
+                         "오류: 더 이상 방을 만들 수 없습니다."));
+            return;
         }
+        int id = nextRoomId.getAndIncrement();
+        roomName = roomName == null ? "" : roomName.trim();
+        if (roomName.isEmpty()) {
+            roomName = handler.getPlayerName() + " 님의 방";
+        } else if (roomName.length() > MAX_ROOM_NAME) {
+            roomName = roomName.substring(0, MAX_ROOM_NAME);
+        }
+
+        Room room = new Room(this, gameLogic, id, roomName, false);
+        rooms.put(id, room);
+        System.out.println("[서버] " + handler.getPlayerName() + " 님이 " + room + "을 만들었습니다.");
+
+        enterRoom(handler, room);
+    }
+
+    private void joinRoom(PlayerConnection handler, int roomId) {
+        Room target = rooms.get(roomId);
+        if (target == null) {
+            handler.sendPacket(new GamePacket(GamePacket.Type.MESSAGE, "SERVER", 
+                         "오류: 없는 방입니다."));
+            sendRoomList(handler);
+            return;
+        }
+        if (target == handler.getRoom()) {
+            return;
+        }
+        enterRoom(handler, target);
+    }
+
+    // 이후 패킷은 바로 새 방으로 가고, 입장 허가는 그 방의 Mailbox가 판단한다
+    // (거절되면 방 목록을 받고, 그 방으로 간 패킷은 오류 응답만 받는다)
+    private void enterRoom(PlayerConnection handler, Room target) {
+        leaveRoom(handler);
+        handler.setRoom(target);
+        target.join(handler);
     }
 
-    // 현재 점수판 텍스트 생성
-    private synchronized String getScoreboardString() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("--- 점수판 ---\n");
-        if (scores.isEmpty()) {
-            sb.append("(게임 시작 대기 중)\n");
+    private void leaveRoom(PlayerConnection handler) {
+        Room room = handler.getRoom();
+        if (room != null) {
+            room.leave(handler);
+            handler.setRoom(null);
         }
-        for (Map.Entry<String, Integer> entry : scores.entrySet()) {
-            sb.append(entry.getKey()).append(" : ").append(entry.getValue()).append("점\n");
+    }
+
+    // 비어서 닫힌 방을 목록에서 제거 (Room의 Mailbox 스레드에서 호출)
+    void removeRoom(Room room) {
+        rooms.remove(room.getId(), room);
+    }
+
+    // 방 목록(RoomInfo)은 바이너리 클라이언트만 안다 (Java 직렬화 클라이언트는 앞의 오류 메시지만 받음)
+    void sendRoomList(PlayerConnection handler) {
+        ArrayList<RoomInfo> list = new ArrayList<>();
+        for (Room room : rooms.values()) {
+            list.add(room.getInfo());
         }
-        return sb.toString();
+        list.sort(Comparator.comparingInt(RoomInfo::getId));
+        handler.sendPacket(EncodedPacket.binaryOnly(new GamePacket(GamePacket.Type.ROOM_LIST, list)));
     }
 
 
+    // 실행 인자로 엔진 선택
+    //   (없음)/thread = 클라이언트당 플랫폼 스레드
+    //   virtual      = 클라이언트당 가상 스레드 (블로킹 코드 그대로)
+    //   nio          = Selector 이벤트 루프
     public static void main(String[] args) {
-        new LobbyServer().run();
+        String engine = args.length > 0 ? args[0] : "thread";
+        LobbyServer server = LobbyServer.create();
+        server.startConsole();
+
+        switch (engine) {
+            case "nio" -> {
+                server.startQueueReporter();
+                server.startPinger();
+                new NioLobbyEngine(server, PORT, NIO_WORKERS).run();
+            }
+            case "virtual" -> server.run(true);
+            default -> server.run(false);
+        }
     }
 }
\ No newline at end of file
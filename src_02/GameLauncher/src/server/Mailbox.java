@@ -0,0 +1,83 @@
+package server;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 방 하나의 이벤트 대기열 (actor)
+// 어느 스레드에서든 submit으로 넣기만 하고, 실제 처리는 공유 스레드 풀에서 한 번에 하나씩 순서대로 실행된다.
+// 그래서 방 상태는 잠금 없이 바뀌고, 읽기/디코딩을 하는 I/O 스레드는 게임 로직을 기다리지 않는다.
+class Mailbox {
+
+    static final int THREADS = Integer.getInteger("lobby.roomThreads", Math.max(2, Runtime.getRuntime().availableProcessors()));
+    private static final int BATCH = 64; // 한 번에 처리할 최대 이벤트 수 (다른 방에 차례 양보)
+
+    // 모든 방이 나눠 쓰는 실행 스레드
+    private static final ExecutorService SHARED = Executors.newFixedThreadPool(THREADS, new ThreadFactory() {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "room-" + count.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        }
+    });
+
+    private final Queue<Runnable> events = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    private final Executor executor;
+    private final String name;
+
+    Mailbox(String name) {
+        this(name, SHARED);
+    }
+
+    Mailbox(String name, Executor executor) {
+        this.name = name;
+        this.executor = executor;
+    }
+
+    // 이벤트 추가. 처리 중이 아니면 실행을 예약
+    void submit(Runnable event) {
+        events.add(event);
+        schedule();
+    }
+
+    // delayMillis 뒤에 이벤트 추가 (공유 타이밍 휠은 시간이 되면 이 Mailbox에 넣기만 함)
+    void submitLater(Runnable event, long delayMillis) {
+        TimerWheel.SHARED.schedule(() -> submit(event), delayMillis);
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            for (int i = 0; i < BATCH; i++) {
+                Runnable event = events.poll();
+                if (event == null) break;
+                try {
+                    event.run();
+                } catch (RuntimeException e) {
+                    System.out.println("[서버] " + name + " 이벤트 처리 오류: " + e);
+                    e.printStackTrace();
+                }
+            }
+        } finally {
+            scheduled.set(false);
+            // 처리하는 사이 들어온 이벤트가 있으면 다시 예약
+            if (!events.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package server;
+
+import model.EncodedPacket;
+import model.GamePacket;
+import model.PacketCodec;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Selector 기반 서버 엔진
+// 접속마다 스레드를 만들지 않고, 고정된 수의 I/O 스레드가 논블로킹 소켓을 나눠 맡는다.
+// 프레임을 해석한 GamePacket은 LobbyServer의 기존 로직(handleJoin/handlePacket/handleDisconnect)으로 넘긴다.
+// 프레임 없는 ObjectOutputStream 클라이언트(PacketCodec.FORMAT_STREAM)는 버퍼에서 잘라낼 수 없으므로 지원하지 않는다.
+class NioLobbyEngine {
+
+    private static final int READ_BUFFER_SIZE = 8 * 1024;
+
+    private final LobbyServer server;
+    private final int port;
+    private final IoWorker[] workers;
+    private int nextWorker = 0;
+
+    NioLobbyEngine(LobbyServer server, int port, int workerCount) {
+        this.server = server;
+        this.port = port;
+        this.workers = new IoWorker[workerCount];
+    }
+
+    // 현재 스레드는 accept 전용으로 사용
+    public void run() {
+        try (ServerSocketChannel listener = ServerSocketChannel.open()) {
+            listener.bind(new InetSocketAddress(port));
+
+            for (int i = 0; i < workers.length; i++) {
+                workers[i] = new IoWorker(i);
+                workers[i].start();
+            }
+            System.out.println("[서버] NIO 엔진: " + port + " 포트, I/O 스레드 " + workers.length + "개로 대기 중입니다...");
+
+            while (true) {
+                SocketChannel channel = listener.accept();
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+
+                // 라운드 로빈으로 I/O 스레드 배정
+                IoWorker worker = workers[nextWorker];
+                nextWorker = (nextWorker + 1) % workers.length;
+                worker.register(channel);
+            }
+        } catch (IOException e) {
+            System.out.println("[서버] NIO 엔진 오류: " + e.getMessage());
+        }
+    }
+
+    // --- I/O 스레드: Selector 하나로 여러 연결의 읽기/쓰기를 처리 ---
+    private class IoWorker extends Thread {
+        private final Selector selector;
+        private final Queue<SocketChannel> pendingChannels = new ConcurrentLinkedQueue<>();
+        private final Queue<NioConnection> pendingWrites = new ConcurrentLinkedQueue<>();
+
+        IoWorker(int index) throws IOException {
+            super("nio-worker-" + index);
+            setDaemon(true);
+            this.selector = Selector.open();
+        }
+
+        void register(SocketChannel channel) {
+            pendingChannels.add(channel);
+            selector.wakeup();
+        }
+
+        // 다른 스레드에서 쓰기 요청이 들어오면 Selector 스레드가 OP_WRITE를 켠다
+        void requestWrite(NioConnection connection) {
+            pendingWrites.add(connection);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                try {
+                    selector.select();
+                    registerPendingChannels();
+                    enablePendingWrites();
+
+                    Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                    while (it.hasNext()) {
+                        SelectionKey key = it.next();
+                        it.remove();
+                        NioConnection connection = (NioConnection) key.attachment();
+                        if (!key.isValid()) {
+                            connection.close();
+                            continue;
+                        }
+                        try {
+                            if (key.isReadable()) connection.onReadable();
+                            if (key.isValid() && key.isWritable()) connection.onWritable();
+                        } catch (IOException e) {
+                            System.out.println("[서버] " + connection.playerName + " 연결 끊김.");
+                            connection.closeNow();
+                        } catch (RuntimeException e) {
+                            // 패킷 처리 중 오류는 그 연결만 끊는다 (같은 Selector의 다른 연결은 계속)
+                            System.out.println("[서버] " + connection.playerName + " 패킷 처리 오류: " + e);
+                            e.printStackTrace();
+                            connection.closeNow();
+                        }
+                    }
+                } catch (IOException | RuntimeException e) {
+                    System.out.println("[서버] " + getName() + " 오류: " + e);
+                }
+            }
+        }
+
+        private void registerPendingChannels() {
+            SocketChannel channel;
+            while ((channel = pendingChannels.poll()) != null) {
+                NioConnection connection = new NioConnection(channel, this);
+                try {
+                    connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+                    server.watchIdle(connection);
+                } catch (ClosedChannelException e) {
+                    connection.closeNow();
+                }
+            }
+        }
+
+        private void enablePendingWrites() {
+            NioConnection connection;
+            while ((connection = pendingWrites.poll()) != null) {
+                if (connection.aborted) {
+                    connection.closeNow(); // 송신 대기열 초과
+                    continue;
+                }
+                SelectionKey key = connection.key;
+                if (key != null && key.isValid()) {
+                    key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+                }
+            }
+        }
+    }
+
+    // --- 연결 하나의 상태 (읽기 버퍼, 쓰기 대기열) ---
+    private class NioConnection implements PlayerConnection {
+        private final SocketChannel channel;
+        private final IoWorker worker;
+        private SelectionKey key;
+
+        private ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        private final OutboundQueue outbound = new OutboundQueue();
+        private final ClockSync clock = new ClockSync();
+        private ByteBuffer writing; // 쓰다 만 프레임 (Selector 스레드만 접근)
+
+        private volatile String playerName;
+        private volatile Room room;
+        private volatile int format = PacketCodec.FORMAT_BINARY; // 첫 프레임(JOIN) 형식으로 결정
+        private boolean joined = false;
+        private volatile boolean closing = false;
+        private volatile boolean aborted = false;
+        private volatile boolean closed = false;
+        private volatile long lastReadNanos = System.nanoTime();
+
+        NioConnection(SocketChannel channel, IoWorker worker) {
+            this.channel = channel;
+            this.worker = worker;
+        }
+
+        // 읽은 바이트를 누적하고, 완성된 프레임만 잘라 패킷으로 해석
+        void onReadable() throws IOException {
+            int n = channel.read(readBuffer);
+            if (n < 0) {
+                throw new IOException("EOF");
+            }
+            lastReadNanos = System.nanoTime(); // 프레임 일부만 와도 살아 있는 연결
+
+            readBuffer.flip();
+            while (!closing && readBuffer.remaining() >= PacketCodec.HEADER_SIZE) {
+                int length = readBuffer.getInt(readBuffer.position());
+                PacketCodec.checkFrameLength(length);
+
+                int frameSize = PacketCodec.HEADER_SIZE + length;
+                if (readBuffer.remaining() < frameSize) {
+                    if (readBuffer.capacity() < frameSize) {
+                        // 큰 프레임: 버퍼를 키워서 나머지를 기다림
+                        ByteBuffer bigger = ByteBuffer.allocate(frameSize);
+                        bigger.put(readBuffer);
+                        readBuffer = bigger;
+                        return;
+                    }
+                    break;
+                }
+
+                int payloadStart = readBuffer.position() + PacketCodec.HEADER_SIZE;
+                if (!joined) {
+                    format = PacketCodec.formatOf(readBuffer.array(), payloadStart);
+                }
+                GamePacket packet = PacketCodec.decode(readBuffer.array(), payloadStart, length);
+                readBuffer.position(readBuffer.position() + frameSize);
+                dispatch(packet);
+            }
+            readBuffer.compact();
+        }
+
+        private void dispatch(GamePacket packet) {
+            if (joined) {
+                server.handlePacket(this, packet);
+                return;
+            }
+            joined = server.handleJoin(this, packet);
+            if (!joined) {
+                close();
+            }
+        }
+
+        // 공유 프레임 배열을 복사하지 않고 연결별 위치만 가진 읽기 전용 뷰로 감싸서 쓴다
+        void onWritable() throws IOException {
+            while (true) {
+                if (writing == null) {
+                    EncodedPacket next = outbound.poll();
+                    if (next == null) break;
+                    byte[] frame = next.frame(format);
+                    if (frame == null) continue; // 이 연결 형식에는 보내지 않는 패킷
+                    writing = ByteBuffer.wrap(frame).asReadOnlyBuffer();
+                }
+                channel.write(writing);
+                if (writing.hasRemaining()) {
+                    return; // 소켓 송신 버퍼가 가득 참: OP_WRITE 유지
+                }
+                writing = null;
+            }
+            key.interestOps(SelectionKey.OP_READ);
+            if (closing) {
+                closeNow();
+            }
+        }
+
+        @Override
+        public String getPlayerName() {
+            return playerName;
+        }
+
+        @Override
+        public void setPlayerName(String playerName) {
+            this.playerName = playerName;
+        }
+
+        @Override
+        public Room getRoom() {
+            return room;
+        }
+
+        @Override
+        public void setRoom(Room room) {
+            this.room = room;
+        }
+
+        // 어느 스레드에서 호출되어도 블로킹 없이 대기열에만 넣는다
+        @Override
+        public void sendPacket(GamePacket packet) {
+            sendPacket(new EncodedPacket(packet));
+        }
+
+        @Override
+        public void sendPacket(EncodedPacket packet) {
+            if (closed) return;
+            if (!outbound.offer(packet)) {
+                // 대기열 초과: Selector 스레드에서 끊도록 요청
+                System.out.println("[서버] " + playerName + " 송신 대기열 초과(" + OutboundQueue.CAPACITY + "). 연결을 끊습니다.");
+                aborted = true;
+            }
+            worker.requestWrite(this);
+        }
+
+        @Override
+        public OutboundQueue getOutboundQueue() {
+            return outbound;
+        }
+
+        @Override
+        public ClockSync getClock() {
+            return clock;
+        }
+
+        @Override
+        public long lastReadNanos() {
+            return lastReadNanos;
+        }
+
+        @Override
+        public boolean isClosed() {
+            return closed;
+        }
+
+        // 남은 전송을 마친 뒤 닫는다
+        @Override
+        public void close() {
+            closing = true;
+            worker.requestWrite(this);
+        }
+
+        // Selector 스레드에서 바로 닫도록 요청
+        @Override
+        public void abort() {
+            aborted = true;
+            worker.requestWrite(this);
+        }
+
+        void closeNow() {
+            if (closed) return;
+            closed = true;
+            outbound.close();
+            if (key != null) key.cancel();
+            try {
+                channel.close();
+            } catch (IOException ignored) {}
+            if (joined) {
+                server.handleDisconnect(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package server;
+
+import model.EncodedPacket;
+import model.GamePacket;
+import model.PacketCodec;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// 연결 하나의 송신 대기열 (크기 제한)
+// 게임 로직은 여기에 넣기만 하고 바로 돌아가며, 실제 소켓 쓰기는 연결별 writer(스레드 엔진)나
+// Selector의 OP_WRITE(NIO 엔진)가 담당한다. 느린 클라이언트 하나가 방 전체를 멈추지 않게 하기 위함.
+//
+// 설정 (시스템 프로퍼티):
+//   lobby.outbound.capacity : 연결당 최대 대기 패킷 수 (기본 256)
+//   lobby.outbound.policy   : coalesce   = 점수 SCORE_UPDATE는 대기 중인 점수 패킷과 하나로 합침 (기본)
+//                                          (변경분은 새 점수 값이라 덮어쓰면 되고, 전체 스냅샷은 그대로 대체)
+//                                          그래서 점수가 아무리 자주 바뀌어도 점수 패킷은 하나만 대기. 그래도 가득 차면 연결 종료
+//                                          (RTT만 담은 SCORE_UPDATE는 합치거나 버리지 않음)
+//                             disconnect = 아무것도 합치지 않고, 가득 차면 연결 종료
+class OutboundQueue {
+
+    static final int CAPACITY = Integer.getInteger("lobby.outbound.capacity", 256);
+    static final boolean COALESCE_SCORES = !"disconnect".equals(System.getProperty("lobby.outbound.policy", "coalesce"));
+
+    private final ArrayDeque<EncodedPacket> packets = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private boolean closed = false;
+
+    // --- 지표 ---
+    private int maxDepth = 0;
+    private long dropped = 0;
+
+    // false: 대기열이 가득 차 더 넣을 수 없음 (호출한 쪽이 연결을 끊어야 함)
+    boolean offer(EncodedPacket packet) {
+        lock.lock();
+        try {
+            if (closed) return true; // 닫히는 중인 연결에는 조용히 버림
+
+            if (COALESCE_SCORES && isScores(packet)) {
+                EncodedPacket pending = removeScores();
+                if (pending != null) {
+                    packet = merge(pending, packet);
+                }
+            }
+            if (packets.size() >= CAPACITY) {
+                return false;
+            }
+
+            packets.addLast(packet);
+            maxDepth = Math.max(maxDepth, packets.size());
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 점수 변경분/스냅샷 (RTT만 담은 SCORE_UPDATE는 아님)
+    private static boolean isScores(EncodedPacket packet) {
+        GamePacket p = packet.getPacket();
+        return p.getType() == GamePacket.Type.SCORE_UPDATE && p.getScores() != null;
+    }
+
+    // 대기 중인 점수 패킷을 꺼낸다 (합치기 때문에 많아야 하나, 없으면 null)
+    private EncodedPacket removeScores() {
+        Iterator<EncodedPacket> it = packets.iterator();
+        while (it.hasNext()) {
+            EncodedPacket next = it.next();
+            if (isScores(next)) {
+                it.remove();
+                dropped++;
+                return next;
+            }
+        }
+        return null;
+    }
+
+    // 이전 점수 패킷 + 새 점수 패킷 -> 하나 (이전 것이 스냅샷이면 결과도 스냅샷)
+    // Java 직렬화 클라이언트에는 새 패킷의 점수판 텍스트(그 시점 전체 점수)를 보낸다
+    private static EncodedPacket merge(EncodedPacket older, EncodedPacket newer) {
+        GamePacket previous = older.getPacket();
+        GamePacket latest = newer.getPacket();
+        if (latest.isFullScores()) {
+            return newer;
+        }
+        LinkedHashMap<String, Integer> scores = new LinkedHashMap<>(previous.getScores());
+        scores.putAll(latest.getScores());
+        return new EncodedPacket(new GamePacket(GamePacket.Type.SCORE_UPDATE, scores, previous.isFullScores()),
+                () -> newer.packetFor(PacketCodec.FORMAT_SERIALIZED));
+    }
+
+    // 스레드 엔진의 writer용: 패킷이 올 때까지 대기. 닫히고 비었으면 null
+    EncodedPacket take() throws InterruptedException {
+        lock.lock();
+        try {
+            while (packets.isEmpty()) {
+                if (closed) return null;
+                notEmpty.await(1, TimeUnit.SECONDS);
+            }
+            return packets.pollFirst();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // NIO 엔진용: 기다리지 않음
+    EncodedPacket poll() {
+        lock.lock();
+        try {
+            return packets.pollFirst();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 더 이상 받지 않음. 이미 들어간 패킷은 writer가 마저 보낸다.
+    void close() {
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int depth() {
+        lock.lock();
+        try {
+            return packets.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int maxDepth() {
+        lock.lock();
+        try {
+            return maxDepth;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long dropped() {
+        lock.lock();
+        try {
+            return dropped;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package server;
+
+import model.EncodedPacket;
+import model.GamePacket;
+
+// LobbyServer의 게임 로직이 바라보는 클라이언트 연결
+// (스레드 방식 ClientHandler와 NIO 방식 NioLobbyEngine 연결이 모두 구현)
+interface PlayerConnection {
+
+    String getPlayerName();
+
+    void setPlayerName(String playerName);
+
+    // 패킷을 넘길 방 (없으면 null). LobbyServer가 방을 옮길 때 설정
+    Room getRoom();
+
+    void setRoom(Room room);
+
+    // 전송 실패는 내부에서 처리하고 예외를 던지지 않는다
+    void sendPacket(GamePacket packet);
+
+    // 브로드캐스트용: 이미 인코딩된 바이트를 그대로 전송
+    // 두 sendPacket 모두 송신 대기열에 넣고 바로 반환한다 (소켓 쓰기로 블로킹하지 않음)
+    void sendPacket(EncodedPacket packet);
+
+    // 지표 조회용
+    OutboundQueue getOutboundQueue();
+
+    // ping/pong으로 추정한 RTT와 시계 차이 (동시 클릭 판정, 점수판 표시)
+    ClockSync getClock();
+
+    // 마지막으로 무언가를 받은 시각 (System.nanoTime, 무응답 감지용)
+    long lastReadNanos();
+
+    boolean isClosed();
+
+    // 대기 중인 전송을 마친 뒤 연결 종료
+    void close();
+
+    // 즉시 종료 (응답 없는 연결 정리). 퇴장 처리는 각 엔진의 끊김 처리로 이어진다
+    void abort();
+}
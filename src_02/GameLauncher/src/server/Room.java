@@ -0,0 +1,699 @@
+package server;
+
+import model.EncodedPacket;
+import model.GamePacket;
+import model.RoomInfo;
+
+import java.awt.Point;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// 게임 방 하나 (대기 상태, 참가자, 점수, 라운드 진행)
+// 방 상태는 이 방의 Mailbox 안에서만 바뀐다. join/leave/handlePacket은 이벤트를 넣고 바로 반환하며,
+// 이벤트는 한 번에 하나씩 순서대로 처리되므로 잠금이 필요 없다. 서로 다른 방은 동시에 처리된다.
+class Room {
+
+    static final int SCORE_TICK_MILLIS = Integer.getInteger("lobby.scoreTickMillis", 50);
+    static final int ROUND_SECONDS = Integer.getInteger("lobby.roundSeconds", 120);
+    // 서버 마감은 ROUND_START를 보낸 시점 + 제한 시간 + 이 여유. 클라이언트 타이머는 이미지가 보일 때 시작하므로
+    // 이미지를 받고 디코딩하는 시간(이 여유 이내)만큼 플레이 시간이 줄지 않는다
+    static final int IMAGE_GRACE_MILLIS = Integer.getInteger("lobby.imageGraceMillis", 10_000);
+
+    private final LobbyServer server;
+    private final int id;
+    private final String name;
+    private final boolean permanent; // 기본 방: 비어도 없어지지 않음
+
+    // 방 참가자 (key: playerName, 입장 순서 유지)
+    private final Map<String, PlayerConnection> players = new LinkedHashMap<>();
+    private final Map<String, Boolean> playerReadyStatus = new LinkedHashMap<>();
+    private final Map<String, Integer> scores = new LinkedHashMap<>();
+
+    // 게임 중 연결이 끊겨 재접속을 기다리는 참가자 (점수와 준비 상태는 그대로 두고, 방송 대상에서만 빠짐)
+    private final Map<String, PlayerConnection> away = new LinkedHashMap<>();
+
+    // 아직 보내지 않은 점수 변경분 (같은 플레이어는 최신 점수만 남음). 틱마다 한 번에 전송
+    private final Map<String, Integer> pendingScores = new LinkedHashMap<>();
+    private boolean scoreFlushScheduled = false;
+
+    private final GameLogic gameLogic;
+    private int currentRound = 0;
+    private RoundPlay roundPlay; // 진행 중인 라운드 (클릭마다 직접 사용)
+    private String hostName = null; // 방장 닉네임
+
+    // 라운드 마감 (서버 기준). 마감이 되면 공유 타이밍 휠이 이 방 Mailbox에 이벤트를 넣는다
+    private TimerWheel.Timeout roundTimeout;
+    private long roundDeadlineNanos;
+    private int roundSeq = 0; // 이전 라운드의 늦은 마감 이벤트 무시용
+
+    // 같은 정답을 거의 동시에 누른 클릭은 잠시 모았다가 보정한 클릭 시각 순으로 판정
+    private final ClickArbiter<PlayerConnection> arbiter = new ClickArbiter<>();
+
+    private String gameState = "LOBBY";
+    private Difficulty currentDifficulty = Difficulty.EASY;
+    private String currentGameMode = "협동";
+    private boolean closed = false; // 비어서 목록에서 빠진 방
+
+    // 방 목록 응답용 (다른 스레드에서 읽음)
+    private volatile int playerCount = 0;
+    private volatile boolean inGame = false;
+
+    private final Mailbox mailbox;
+
+    Room(LobbyServer server, GameLogic gameLogic, int id, String name, boolean permanent) {
+        this.server = server;
+        this.id = id;
+        this.name = name;
+        this.permanent = permanent;
+        this.gameLogic = gameLogic;
+        this.mailbox = new Mailbox(toString());
+    }
+
+    int getId() {
+        return id;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    RoomInfo getInfo() {
+        return new RoomInfo(id, name, playerCount, inGame);
+    }
+
+    boolean isInGame() {
+        return inGame;
+    }
+
+    // --- 외부 진입점: 이벤트만 넣고 반환 ---
+
+    void join(PlayerConnection handler) {
+        mailbox.submit(() -> onJoin(handler));
+    }
+
+    void leave(PlayerConnection handler) {
+        mailbox.submit(() -> onLeave(handler));
+    }
+
+    // 게임 중 연결 끊김: 자리를 비워 두고 재접속을 기다림 (대기 시간이 지나면 서버가 leave를 부른다)
+    void suspend(PlayerConnection handler) {
+        mailbox.submit(() -> onSuspend(handler));
+    }
+
+    // 같은 플레이어의 새 연결로 자리를 이어받음
+    void resume(PlayerConnection handler) {
+        mailbox.submit(() -> onResume(handler));
+    }
+
+    // 도착 시각은 I/O 스레드에서 기록 (방 대기열에서 기다린 시간이 판정에 섞이지 않도록)
+    void handlePacket(PlayerConnection handler, GamePacket packet) {
+        long arrivalTime = System.currentTimeMillis();
+        mailbox.submit(() -> onPacket(handler, packet, arrivalTime));
+    }
+
+    // 게임 중이면 참가자별 RTT를 점수판에 표시하도록 전송 (pinger 스레드에서 호출)
+    void publishLatencies() {
+        if (!inGame) return;
+        mailbox.submit(this::onPublishLatencies);
+    }
+
+    // --- 이하 Mailbox 스레드에서만 실행 ---
+
+    // 입장. 게임 중이거나 이미 없어진 방이면 거절하고 방 목록을 보냄
+    private void onJoin(PlayerConnection handler) {
+        String playerName = handler.getPlayerName();
+        if (closed) {
+            handler.sendPacket(new GamePacket(GamePacket.Type.MESSAGE, "SERVER",
+                         "오류: 없어진 방입니다."));
+            server.sendRoomList(handler);
+            return;
+        }
+        if (!gameState.equals("LOBBY")) {
+            handler.sendPacket(new GamePacket(GamePacket.Type.MESSAGE, "SERVER",
+                         "오류: 이미 게임이 시작되었습니다."));
+            server.sendRoomList(handler);
+            return;
+        }
+
+        players.put(playerName, handler); // 같은 닉네임으로 재접속했다면 이전 연결을 대체
+        playerCount = players.size();
+        System.out.println("[서버] " + playerName + " 님이 " + this + "에 입장했습니다.");
+
+        if (players.size() == 1) { // 첫 입장자가 방장
+            hostName = playerName;
+            System.out.println("[서버] " + playerName + " 님이 " + this + "의 방장이 되었습니다.");
+        }
+
+        playerReadyStatus.put(playerName, false);
+
+        broadcast(new GamePacket(GamePacket.Type.MESSAGE, "[서버]",
+                     playerName + " 님이 들어왔습니다."));
+
+        broadcastLobbyUpdate();
+    }
+
+    // 퇴장 (연결 끊김 또는 방 나가기, 재접속 대기 시간 초과)
+    private void onLeave(PlayerConnection handler) {
+        String playerName = handler.getPlayerName();
+        if (away.get(playerName) == handler) {
+            away.remove(playerName);
+        } else if (players.get(playerName) == handler) {
+            players.remove(playerName);
+        } else {
+            return;
+        }
+        scores.remove(playerName);
+        pendingScores.remove(playerName);
+        playerReadyStatus.remove(playerName);
+        playerCount = players.size() + away.size();
+        System.out.println("[서버] " + playerName + " 님이 " + this + "에서 퇴장했습니다.");
+
+        if (playerName.equals(hostName)) {
+            reassignHost();
+        }
+        if (closeIfEmpty() || players.isEmpty()) {
+            return; // 재접속을 기다리는 참가자만 남으면 게임은 그대로 진행
+        }
+
+        if (gameState.equals("LOBBY")) {
+            broadcastLobbyUpdate();
+        } else {
+            broadcast(new GamePacket(GamePacket.Type.MESSAGE, "SERVER",
+                      playerName + " 님이 퇴장했습니다."));
+            broadcastFullScores(); // 나간 사람을 점수판에서 지움
+        }
+    }
+
+    // 방장이 나갔을 때 가장 먼저 들어온 참가자를 방장으로 설정 (접속 중인 참가자 우선)
+    private void reassignHost() {
+        Map<String, PlayerConnection> candidates = !players.isEmpty() ? players : away;
+        if (candidates.isEmpty()) return;
+        hostName = candidates.keySet().iterator().next();
+        System.out.println("[서버] " + hostName + " 님이 " + this + "의 새 방장이 되었습니다.");
+    }
+
+    // 모든 참가자가 나가면 대기 상태로 리셋 (기본 방이 아니면 목록에서 제거)
+    private boolean closeIfEmpty() {
+        if (!players.isEmpty() || !away.isEmpty()) {
+            return false;
+        }
+        resetToLobby();
+        hostName = null;
+        if (!permanent) {
+            closed = true;
+            server.removeRoom(this);
+            System.out.println("[서버] " + this + " 비어서 닫습니다.");
+        } else {
+            System.out.println("[서버] " + this + " 모든 유저 퇴장. 대기방으로 리셋합니다.");
+        }
+        return true;
+    }
+
+    // 게임 중 연결 끊김: 점수/찾은 정답/방장 자리는 그대로, 방송 대상에서만 뺀다
+    private void onSuspend(PlayerConnection handler) {
+        String playerName = handler.getPlayerName();
+        if (players.get(playerName) != handler) {
+            return;
+        }
+        if (!gameState.equals("IN_GAME")) {
+            onLeave(handler); // 그 사이 게임이 끝남
+            return;
+        }
+        players.remove(playerName);
+        away.put(playerName, handler);
+        System.out.println("[서버] " + playerName + " 님이 " + this + "에서 연결이 끊겼습니다. 재접속을 기다립니다.");
+        broadcast(new GamePacket(GamePacket.Type.MESSAGE, "SERVER",
+                  playerName + " 님의 연결이 끊겼습니다. 재접속을 기다립니다."));
+    }
+
+    // 재접속: 비워 둔 자리(또는 아직 끊긴 줄 모르는 이전 연결의 자리)를 새 연결로 바꾸고 지금 상태만 보낸다
+    // 게임이 이미 끝났거나 자리가 없으면 알리고 보통 입장으로 처리
+    private void onResume(PlayerConnection handler) {
+        String playerName = handler.getPlayerName();
+        PlayerConnection previous = away.remove(playerName);
+        if (previous == null) {
+            previous = players.get(playerName);
+        }
+        if (previous == null || !gameState.equals("IN_GAME")) {
+            handler.sendPacket(new GamePacket(GamePacket.Type.GAME_OVER, "이전 게임으로 돌아갈 수 없습니다. (이미 끝난 게임)"));
+            onJoin(handler);
+            return;
+        }
+        players.put(playerName, handler);
+        System.out.println("[서버] " + playerName + " 님이 " + this + "에 다시 접속했습니다. (라운드 " + currentRound
+                + ", 남은 정답 " + roundPlay.remaining() + "개)");
+        sendSnapshot(handler);
+        broadcast(new GamePacket(GamePacket.Type.MESSAGE, "SERVER",
+                  playerName + " 님이 다시 접속했습니다."));
+    }
+
+    // 재접속 스냅샷: 지난 패킷을 다시 보내지 않고 지금 상태만 보낸다
+    // (이번 라운드 + 남은 시간 + 찾은 정답 비트, 전체 점수판, 다음 라운드 안내)
+    // 남은 시간은 다른 참가자 화면과 맞도록 이미지 여유를 뺀 값
+    private void sendSnapshot(PlayerConnection handler) {
+        long remainingMillis = Math.max(1, (roundDeadlineNanos - System.nanoTime()) / 1_000_000 - IMAGE_GRACE_MILLIS);
+        handler.sendPacket(roundPacket(GamePacket.Type.ROUND_START, currentRound, roundPlay.getData(),
+                (int) remainingMillis, roundPlay.foundBits()));
+        handler.sendPacket(new GamePacket(GamePacket.Type.SCORE_UPDATE, new LinkedHashMap<>(scores), true));
+
+        RoundData next = gameLogic.findRound(currentDifficulty, currentRound + 1);
+        if (next != null) {
+            handler.sendPacket(EncodedPacket.binaryOnly(roundPacket(GamePacket.Type.ROUND_PREFETCH, currentRound + 1, next)));
+        }
+    }
+
+    // 게임이 끝나면 재접속을 기다리던 자리는 없앤다 (돌아오면 대기방에 새로 입장)
+    private void releaseAway() {
+        if (away.isEmpty()) return;
+        for (String playerName : away.keySet()) {
+            scores.remove(playerName);
+            playerReadyStatus.remove(playerName);
+            System.out.println("[서버] " + playerName + " 님 재접속 대기 종료 (" + this + " 게임 끝남).");
+        }
+        away.clear();
+        playerCount = players.size();
+        if (!players.containsKey(hostName)) {
+            reassignHost();
+        }
+        closeIfEmpty();
+    }
+
+    // 방 안의 패킷 처리 로직
+    private void onPacket(PlayerConnection handler, GamePacket packet, long arrivalTime) {
+        if (players.get(handler.getPlayerName()) != handler) {
+            // 입장이 거절된 방으로 보낸 패킷
+            handler.sendPacket(new GamePacket(GamePacket.Type.MESSAGE, "SERVER",
+                         "오류: 먼저 방에 입장하세요."));
+            return;
+        }
+        if (!gameState.equals("IN_GAME")) { // 게임 중이 아닐 때
+            switch (packet.getType()) {
+                case MESSAGE:
+                    System.out.println("[대기방 채팅] " + this + " " + packet.getSender() + ": " + packet.getMessage());
+                    broadcast(packet);
+                    break;
+                case READY_STATUS:
+                    playerReadyStatus.put(handler.getPlayerName(), packet.isReady());
+                    System.out.println("[서버] " + handler.getPlayerName() + " 준비 상태: " + packet.isReady());
+                    broadcastLobbyUpdate();
+                    break;
+                case SETTINGS_UPDATE:
+                    if (handler.getPlayerName().equals(hostName)) {
+                        currentDifficulty = parseDifficulty(packet.getDifficulty());
+                        currentGameMode = packet.getGameMode();
+                        System.out.println("[서버] " + this + " 방장이 설정을 변경: " + currentDifficulty + "/" + currentGameMode);
+                        broadcastLobbyUpdate();
+                    }
+                    break;
+                case START_GAME_REQUEST:
+                    if (handler.getPlayerName().equals(hostName)) {
+                        startGame(handler, packet);
+                    }
+                    break;
+                default:
+                    System.out.println("[서버] 대기방 상태에서 잘못된 패킷 수신: " + packet.getType());
+            }
+        }
+
+        else { // 게임 중일 때
+             switch (packet.getType()) {
+                 case CLICK_AT:
+                    if (rejectLateClick(handler)) break;
+                    handleClickAt(handler, packet, arrivalTime);
+                    break;
+                 case CLICK: // 이전 버전 클라이언트 (클라이언트가 고른 번호를 그대로 판정)
+                    if (rejectLateClick(handler)) break;
+                    handleClick(handler, packet.getAnswerIndex(), packet.getClientTime(), arrivalTime);
+                    break;
+                case MESSAGE:
+                    System.out.println("[인게임 채팅] " + this + " " + packet.getSender() + ": " + packet.getMessage());
+                    broadcast(packet);
+                    break;
+                 default:
+                    System.out.println("[서버] 인게임 상태에서 잘못된 패킷 수신: " + packet.getType());
+             }
+        }
+    }
+
+    private void startGame(PlayerConnection handler, GamePacket packet) {
+        System.out.println("[서버] " + handler.getPlayerName() + " 님이 " + this + " 게임 시작 요청.");
+
+        boolean allReady = true;
+        for (Map.Entry<String, Boolean> entry : playerReadyStatus.entrySet()) {
+            if (!entry.getKey().equals(hostName) && !entry.getValue()) {
+                allReady = false;
+                break;
+            }
+        }
+
+        if (!allReady) {
+             handler.sendPacket(new GamePacket(GamePacket.Type.MESSAGE, "SERVER",
+                                "오류: 모든 참여자가 '준비 완료' 상태여야 합니다."));
+             return;
+        }
+
+        if (players.size() < 1) { // 1인 테스트용
+             handler.sendPacket(new GamePacket(GamePacket.Type.MESSAGE, "SERVER",
+                                "오류: 최소 2명 이상이어야 시작할 수 있습니다."));
+             return;
+        }
+
+        // --- 게임 시작 ---
+        Difficulty difficulty = parseDifficulty(packet.getDifficulty());
+        RoundPlay play = gameLogic.startRound(difficulty, 1); // 메모리의 카탈로그에서 꺼내기만 함
+        if (play == null) {
+            String reason = gameLogic.isLoading()
+                    ? "라운드 목록을 불러오는 중입니다. 잠시 후 다시 시도하세요."
+                    : "'" + new RoundId(difficulty, 1) + "' 라운드가 없습니다.";
+            handler.sendPacket(new GamePacket(GamePacket.Type.MESSAGE, "SERVER", "오류: " + reason));
+            return;
+        }
+
+        currentDifficulty = difficulty;
+        currentGameMode = packet.getGameMode();
+
+        gameState = "IN_GAME";
+        inGame = true;
+
+        System.out.println("[서버] " + this + " " + currentDifficulty + "/" + currentGameMode + " 모드로 게임을 시작합니다.");
+
+        beginRound(1, play);
+
+        scores.clear();
+        for (String playerName : players.keySet()) {
+            scores.put(playerName, 0);
+        }
+        broadcastFullScores();
+    }
+
+    // 좌표로 정답 판정 (공간 색인). 빗나가면 누른 사람에게만 알리고 감점 없음 (이미 찾은 정답 자리도 빗나감)
+    private void handleClickAt(PlayerConnection handler, GamePacket packet, long arrivalTime) {
+        Point p = packet.getClickPoint();
+        if (p == null) return;
+        int answerIndex = roundPlay.findAnswerAt(p.x, p.y);
+        if (answerIndex < 0) {
+            handler.sendPacket(new GamePacket(GamePacket.Type.RESULT,
+                        handler.getPlayerName(), -1, false, null, p));
+            return;
+        }
+        handleClick(handler, answerIndex, packet.getClientTime(), arrivalTime);
+    }
+
+    // 아직 찾지 않은 정답이면 판정 창에 넣는다. 이미 찾은 정답은 누른 사람에게만 알리고 감점 없음,
+    // 잘못된 번호는 바로 오답 판정
+    private void handleClick(PlayerConnection handler, int answerIndex, long clientTime, long arrivalTime) {
+        if (roundPlay.isFound(answerIndex)) {
+            handler.sendPacket(new GamePacket(GamePacket.Type.RESULT,
+                        handler.getPlayerName(), answerIndex, false, "이미 찾은 정답입니다."));
+            return;
+        }
+        if (!roundPlay.isOpen(answerIndex)) {
+            judgeClick(handler, answerIndex);
+            return;
+        }
+        long clickTime = ClickArbiter.compensate(arrivalTime, clientTime, handler.getClock().estimate());
+        if (arbiter.offer(answerIndex, handler, clickTime, arrivalTime)) {
+            int seq = roundSeq;
+            TimerWheel.SHARED.schedule(() -> mailbox.submit(() -> settleClaims(answerIndex, seq)),
+                    arbitrationWindow());
+        }
+    }
+
+    // 지금 참가자들의 RTT 범위로 판정 창 길이 결정 (측정 전인 참가자는 빠짐)
+    private int arbitrationWindow() {
+        int minRtt = Integer.MAX_VALUE;
+        int maxRtt = 0;
+        for (PlayerConnection player : players.values()) {
+            ClockSync.Estimate estimate = player.getClock().estimate();
+            if (estimate == null) continue;
+            minRtt = Math.min(minRtt, estimate.rttMillis());
+            maxRtt = Math.max(maxRtt, estimate.rttMillis());
+        }
+        return minRtt > maxRtt ? ClickArbiter.WINDOW_MILLIS : ClickArbiter.windowMillis(minRtt, maxRtt);
+    }
+
+    // 판정 창 닫기: 보정 시각이 가장 이른 참가자만 정답으로 인정, 나머지는 감점 없이 알림
+    private void settleClaims(int answerIndex, int seq) {
+        if (seq != roundSeq || !gameState.equals("IN_GAME")) {
+            return; // 그 사이 라운드가 바뀌었거나 끝남
+        }
+        List<ClickArbiter.Claim<PlayerConnection>> claims = arbiter.settle(answerIndex);
+        ClickArbiter.Claim<PlayerConnection> winner = null;
+        for (ClickArbiter.Claim<PlayerConnection> claim : claims) {
+            PlayerConnection player = claim.player();
+            if (players.get(player.getPlayerName()) != player) {
+                continue; // 판정 전에 나감
+            }
+            if (winner == null) {
+                winner = claim;
+                continue;
+            }
+            // 이긴 쪽 판정(다음 라운드 시작일 수 있음)보다 먼저 보낸다
+            player.sendPacket(new GamePacket(GamePacket.Type.RESULT, player.getPlayerName(), answerIndex, false,
+                    "간발의 차로 " + winner.player().getPlayerName() + " 님이 먼저 찾았습니다."));
+        }
+        if (winner == null) {
+            return;
+        }
+        if (claims.size() > 1) {
+            System.out.println("[서버] " + this + " 동시 클릭 판정: " + answerIndex + "번 -> "
+                    + winner.player().getPlayerName() + " (" + claims.size() + "명, 보정 시각 차 "
+                    + (claims.get(claims.size() - 1).clickTime() - claims.get(0).clickTime()) + "ms)");
+        }
+        judgeClick(winner.player(), answerIndex);
+    }
+
+    private void judgeClick(PlayerConnection handler, int answerIndex) {
+        System.out.println("[서버] " + handler.getPlayerName() + " 클릭: " + answerIndex + "번");
+
+        boolean isCorrect = roundPlay.checkAnswer(answerIndex);
+
+        String resultMsg;
+
+        // --- (점수 계산 로직) ---
+        int newScore;
+        if (isCorrect) {
+            resultMsg = "정답!";
+            newScore = scores.merge(handler.getPlayerName(), 10, Integer::sum);
+        } else {
+            resultMsg = "오답!";
+            newScore = scores.merge(handler.getPlayerName(), -5, Integer::sum);
+        }
+
+        // 1. 클릭 결과 전송
+        broadcast(new GamePacket(GamePacket.Type.RESULT,
+                    handler.getPlayerName(), answerIndex, isCorrect, resultMsg));
+
+        // 2. 점수 변경분은 모아 두었다가 틱마다 전송
+        queueScore(handler.getPlayerName(), newScore);
+
+        // 3. 모든 정답 찾았는지 확인 (다음 라운드가 있으면 이어서, 없으면 게임 종료)
+        if (isCorrect && roundPlay.areAllFound()) {
+            flushScores(); // 최종 점수를 종료 알림보다 먼저
+            RoundPlay next = gameLogic.startRound(currentDifficulty, currentRound + 1);
+            if (next != null) {
+                broadcast(new GamePacket(GamePacket.Type.MESSAGE, "SERVER",
+                          "라운드 " + currentRound + " 클리어! 다음 라운드를 시작합니다."));
+                beginRound(currentRound + 1, next);
+                return;
+            }
+            broadcast(new GamePacket(GamePacket.Type.GAME_OVER,
+                      "게임 클리어! 모든 정답을 찾았습니다."));
+            resetToLobby();
+            releaseAway();
+            broadcastLobbyUpdate();
+        }
+    }
+
+    // 마감이 지났는데 아직 마감 이벤트가 처리되지 않은 클릭 (휠 틱 사이) -> 판정하지 않고 라운드를 바로 마감
+    private boolean rejectLateClick(PlayerConnection handler) {
+        if (System.nanoTime() - roundDeadlineNanos < 0) {
+            return false;
+        }
+        System.out.println("[서버] " + this + " 마감 후 클릭 무시: " + handler.getPlayerName());
+        onRoundTimeout(roundSeq);
+        return true;
+    }
+
+    // 라운드 마감: 시간 종료를 알리고 게임을 끝낸다
+    private void onRoundTimeout(int seq) {
+        if (!gameState.equals("IN_GAME") || seq != roundSeq) {
+            return; // 이미 다음 라운드로 넘어갔거나 끝난 게임
+        }
+        System.out.println("[서버] " + this + " 라운드 " + currentRound + " 시간 종료.");
+        roundTimeout = null;
+        flushScores(); // 최종 점수를 종료 알림보다 먼저
+        broadcast(new GamePacket(GamePacket.Type.TIMER_END, "SERVER",
+                  "시간 종료! 라운드 " + currentRound + "을(를) 끝내지 못했습니다.", System.currentTimeMillis()));
+        broadcast(new GamePacket(GamePacket.Type.GAME_OVER, "시간 초과로 게임이 종료되었습니다."));
+        resetToLobby();
+        releaseAway();
+        broadcastLobbyUpdate();
+    }
+
+    // 게임 상태 정리 (라운드 마감 타이머 취소, 라운드 데이터 해제)
+    private void resetToLobby() {
+        if (roundTimeout != null) {
+            roundTimeout.cancel();
+            roundTimeout = null;
+        }
+        roundSeq++;
+        arbiter.clear();
+        roundPlay = null;
+        gameState = "LOBBY";
+        inGame = false;
+        currentRound = 0;
+    }
+
+    // 라운드 시작 알림 + 다음 라운드 안내 (클라이언트는 이번 라운드 중에 다음 이미지를 미리 받아 디코딩)
+    // 라운드 마감도 여기서 예약한다 (클라이언트 타이머는 표시용)
+    private void beginRound(int round, RoundPlay play) {
+        currentRound = round;
+        roundPlay = play;
+        scheduleRoundTimeout();
+        broadcast(roundPacket(GamePacket.Type.ROUND_START, round, play.getData()));
+
+        RoundData next = gameLogic.findRound(currentDifficulty, round + 1);
+        if (next != null) {
+            broadcast(EncodedPacket.binaryOnly(roundPacket(GamePacket.Type.ROUND_PREFETCH, round + 1, next)));
+        }
+    }
+
+    private void scheduleRoundTimeout() {
+        if (roundTimeout != null) {
+            roundTimeout.cancel();
+        }
+        int seq = ++roundSeq;
+        arbiter.clear();
+        long limitMillis = ROUND_SECONDS * 1000L + IMAGE_GRACE_MILLIS;
+        roundDeadlineNanos = System.nanoTime() + limitMillis * 1_000_000L;
+        roundTimeout = TimerWheel.SHARED.schedule(() -> mailbox.submit(() -> onRoundTimeout(seq)), limitMillis);
+    }
+
+    // 이미지 해시/크기를 함께 보내 클라이언트가 캐시에 없을 때만 받아 가게 함
+    // ROUND_START에는 서버 시각과 제한 시간(이미지 여유 제외)을 실어 클라이언트가 남은 시간을 표시하게 함
+    private GamePacket roundPacket(GamePacket.Type type, int round, RoundData roundData) {
+        boolean timed = type == GamePacket.Type.ROUND_START;
+        return roundPacket(type, round, roundData, timed ? ROUND_SECONDS * 1000 : 0, null);
+    }
+
+    // timeLimitMillis: 남은 시간 (0이면 시간 정보 없음), foundBits: 재접속 시 이미 찾은 정답
+    private GamePacket roundPacket(GamePacket.Type type, int round, RoundData roundData, int timeLimitMillis, byte[] foundBits) {
+        ImageStore.ImageInfo image = gameLogic.imageFor(roundData);
+        return new GamePacket(type,
+            round,
+            roundData.getImagePath(),
+            roundData.getAnswers(),
+            roundData.getOriginalDimension(),
+            image != null ? image.hash() : null,
+            image != null ? image.size() : 0,
+            timeLimitMillis != 0 ? System.currentTimeMillis() : 0,
+            timeLimitMillis,
+            foundBits
+        );
+    }
+
+    // 방 참가자에게 현재 유저 목록/설정 전송
+    private void broadcastLobbyUpdate() {
+        broadcast(new GamePacket(
+            GamePacket.Type.LOBBY_UPDATE,
+            id,
+            name,
+            hostName,
+            new LinkedHashMap<>(playerReadyStatus), // 복사본 생성
+            currentDifficulty.label(),
+            currentGameMode
+        ));
+    }
+
+    // 모르는 난이도 이름이면 현재 값 유지
+    private Difficulty parseDifficulty(String label) {
+        Difficulty difficulty = Difficulty.fromLabel(label);
+        if (difficulty == null) {
+            System.out.println("[서버] " + this + " 알 수 없는 난이도: " + label);
+            return currentDifficulty;
+        }
+        return difficulty;
+    }
+
+    // --- 점수판 ---
+
+    // 참가자별 RTT (아직 측정 전이면 빠짐). 바이너리 클라이언트만 표시한다
+    private void onPublishLatencies() {
+        if (!gameState.equals("IN_GAME")) return;
+        LinkedHashMap<String, Integer> latencies = new LinkedHashMap<>();
+        for (PlayerConnection handler : players.values()) {
+            ClockSync.Estimate estimate = handler.getClock().estimate();
+            if (estimate != null) {
+                latencies.put(handler.getPlayerName(), estimate.rttMillis());
+            }
+        }
+        if (!latencies.isEmpty()) {
+            broadcast(EncodedPacket.binaryOnly(new GamePacket(GamePacket.Type.SCORE_UPDATE, latencies)));
+        }
+    }
+
+    private void queueScore(String playerName, int score) {
+        pendingScores.put(playerName, score);
+        if (!scoreFlushScheduled) {
+            scoreFlushScheduled = true;
+            mailbox.submitLater(this::onScoreTick, SCORE_TICK_MILLIS);
+        }
+    }
+
+    private void onScoreTick() {
+        scoreFlushScheduled = false;
+        flushScores();
+    }
+
+    // 모인 변경분을 한 패킷으로 전송
+    private void flushScores() {
+        if (pendingScores.isEmpty()) return;
+        GamePacket delta = new GamePacket(GamePacket.Type.SCORE_UPDATE, new LinkedHashMap<>(pendingScores), false);
+        pendingScores.clear();
+        broadcastScores(delta);
+    }
+
+    // 전체 점수판 (게임 시작, 퇴장 시)
+    private void broadcastFullScores() {
+        pendingScores.clear();
+        broadcastScores(new GamePacket(GamePacket.Type.SCORE_UPDATE, new LinkedHashMap<>(scores), true));
+    }
+
+    // SCORE_UPDATE를 모르는 Java 직렬화 클라이언트에는 같은 시점의 점수판 텍스트(SCORE)를 보낸다
+    private void broadcastScores(GamePacket update) {
+        Map<String, Integer> snapshot = update.isFullScores() ? update.getScores() : new LinkedHashMap<>(scores);
+        broadcast(new EncodedPacket(update,
+                () -> new GamePacket(GamePacket.Type.SCORE, scoreboardText(snapshot))));
+    }
+
+    // 방 참가자 전원에게 패킷 전송 (인코딩은 형식별 1회, 바이트는 공유)
+    private void broadcast(GamePacket packet) {
+        broadcast(new EncodedPacket(packet));
+    }
+
+    private void broadcast(EncodedPacket encoded) {
+        for (PlayerConnection handler : players.values()) {
+            handler.sendPacket(encoded);
+        }
+    }
+
+    // 점수판 텍스트 생성 (이전 버전 클라이언트용)
+    private static String scoreboardText(Map<String, Integer> scores) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("--- 점수판 ---\n");
+        if (scores.isEmpty()) {
+            sb.append("(게임 시작 대기 중)\n");
+        }
+        for (Map.Entry<String, Integer> entry : scores.entrySet()) {
+            sb.append(entry.getKey()).append(" : ").append(entry.getValue()).append("점\n");
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "[방 #" + id + " " + name + "]";
+    }
+}
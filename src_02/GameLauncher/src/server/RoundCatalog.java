@@ -0,0 +1,246 @@
+package server;
+
+import java.awt.Dimension;
+import java.awt.Rectangle;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// 라운드 목록 스냅샷 (불변)
+// answers 폴더의 "<난이도>_<번호>.txt" 파일을 병렬로 읽고 검증해서 만든다.
+// 라운드가 많은 레벨 팩(*.pack)은 매핑만 해 두고 라운드별로 필요할 때 읽는다 (RoundPack).
+// 게임 시작은 이미 만들어진 스냅샷에서 꺼내기만 하므로 파일을 건드리지 않는다.
+// 같은 라운드가 여럿이면 텍스트 파일 > 팩 > 기본 라운드 순으로 쓴다.
+//
+// 텍스트 파일 형식:
+//   첫 줄: 원본 이미지 크기 "가로,세로"
+//   나머지: 정답 사각형 "x,y,가로,세로" (빈 줄 무시)
+final class RoundCatalog {
+
+    private static final Pattern FILE_NAME = Pattern.compile("(.+)_(\\d+)\\.txt");
+
+    private final Map<RoundId, RoundData> rounds;
+    private final List<RoundPack> packs;
+    private final List<String> errors;
+    private final int size;
+
+    private RoundCatalog(Map<RoundId, RoundData> rounds, List<RoundPack> packs, List<String> errors) {
+        this.rounds = Collections.unmodifiableMap(rounds);
+        this.packs = List.copyOf(packs);
+        this.errors = Collections.unmodifiableList(errors);
+
+        int total = rounds.size();
+        for (RoundPack pack : packs) total += pack.size();
+        for (RoundId id : rounds.keySet()) {
+            if (inPack(id)) total--; // 텍스트 파일이 덮어쓴 라운드는 한 번만
+        }
+        this.size = total;
+    }
+
+    RoundData get(RoundId id) {
+        RoundData round = rounds.get(id);
+        if (round != null) {
+            return round;
+        }
+        for (RoundPack pack : packs) {
+            round = pack.get(id);
+            if (round != null) {
+                return round;
+            }
+        }
+        return null;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // 모든 라운드의 이미지 경로 (중복 제외, 팩은 목차와 경로만 읽음)
+    Set<String> imagePaths() {
+        Set<String> paths = new HashSet<>();
+        for (RoundData round : rounds.values()) paths.add(round.getImagePath());
+        for (RoundPack pack : packs) paths.addAll(pack.imagePaths());
+        return paths;
+    }
+
+    private boolean inPack(RoundId id) {
+        for (RoundPack pack : packs) {
+            if (pack.contains(id)) return true;
+        }
+        return false;
+    }
+
+    // 검증에 실패해 빠진 파일 (파일 이름: 이유)
+    List<String> getErrors() {
+        return errors;
+    }
+
+    // 로그/콘솔 표시용: 난이도_번호 정렬 목록 (팩은 파일 이름과 라운드 수만)
+    String describe() {
+        TreeSet<String> names = new TreeSet<>();
+        for (RoundId id : rounds.keySet()) names.add(id.toString());
+        String text = String.join(", ", names);
+        for (RoundPack pack : packs) {
+            text += (text.isEmpty() ? "" : ", ") + pack.getFile().getFileName() + " (" + pack.size() + "개)";
+        }
+        return text;
+    }
+
+    // 기본 라운드만 (파일을 읽지 않음)
+    static RoundCatalog of(List<RoundData> builtIn) {
+        return new RoundCatalog(toMap(builtIn), List.of(), new ArrayList<>());
+    }
+
+    private static Map<RoundId, RoundData> toMap(List<RoundData> list) {
+        Map<RoundId, RoundData> rounds = new HashMap<>();
+        for (RoundData round : list) {
+            rounds.put(round.getId(), round);
+        }
+        return rounds;
+    }
+
+    // 기본 라운드 + 폴더의 파일들. 폴더가 없으면 기본 라운드만
+    static RoundCatalog load(Path dir, List<RoundData> builtIn) {
+        Map<RoundId, RoundData> rounds = toMap(builtIn);
+        List<RoundPack> packs = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        if (!Files.isDirectory(dir)) {
+            return new RoundCatalog(rounds, packs, errors);
+        }
+
+        // 1. 팩: 목차만 확인 (이름 순으로 먼저 찾은 팩이 우선)
+        for (Path file : listFiles(dir, ".pack", errors)) {
+            try {
+                packs.add(RoundPack.open(file));
+            } catch (IOException e) {
+                errors.add(file.getFileName() + ": " + e.getMessage());
+            }
+        }
+        rounds.keySet().removeIf(id -> packs.stream().anyMatch(pack -> pack.contains(id)));
+
+        // 2. 텍스트 파일: 전부 읽어 검증
+        for (RoundData round : parseTextFiles(dir, errors)) {
+            rounds.put(round.getId(), round); // 텍스트 파일이 가장 우선
+        }
+        return new RoundCatalog(rounds, packs, errors);
+    }
+
+    // 폴더의 "<난이도>_<번호>.txt" 파일을 모두 읽는다. 실패한 파일은 errors에 이유를 남기고 뺀다.
+    static List<RoundData> parseTextFiles(Path dir, List<String> errors) {
+        List<Path> files = listFiles(dir, ".txt", errors);
+
+        // 파일마다 독립적이므로 병렬로 파싱/검증
+        List<Object> results = files.parallelStream()
+                .map(file -> {
+                    try {
+                        return (Object) parse(file);
+                    } catch (IOException e) {
+                        return file.getFileName() + ": " + e.getMessage();
+                    }
+                })
+                .collect(Collectors.toList());
+
+        List<RoundData> rounds = new ArrayList<>();
+        for (Object result : results) {
+            if (result instanceof RoundData round) {
+                rounds.add(round);
+            } else {
+                errors.add((String) result);
+            }
+        }
+        return rounds;
+    }
+
+    private static List<Path> listFiles(Path dir, String suffix, List<String> errors) {
+        try (Stream<Path> list = Files.list(dir)) {
+            return list.filter(p -> p.getFileName().toString().endsWith(suffix)).sorted().collect(Collectors.toList());
+        } catch (IOException e) {
+            errors.add(dir + ": 폴더를 읽을 수 없습니다 (" + e.getMessage() + ")");
+            return new ArrayList<>();
+        }
+    }
+
+    private static RoundData parse(Path file) throws IOException {
+        String fileName = file.getFileName().toString();
+        Matcher m = FILE_NAME.matcher(fileName);
+        if (!m.matches()) {
+            throw new IOException("파일 이름은 <난이도>_<번호>.txt 형식이어야 합니다.");
+        }
+        Difficulty difficulty = Difficulty.fromLabel(m.group(1));
+        if (difficulty == null) {
+            throw new IOException("알 수 없는 난이도: " + m.group(1));
+        }
+        int round = Integer.parseInt(m.group(2));
+        if (round < 1) {
+            throw new IOException("라운드 번호는 1 이상이어야 합니다.");
+        }
+        RoundId id = new RoundId(difficulty, round);
+
+        Dimension dim = null;
+        List<Rectangle> answers = new ArrayList<>();
+        try (BufferedReader br = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNo = 0;
+            while ((line = br.readLine()) != null) {
+                lineNo++;
+                if (line.trim().isEmpty()) continue;
+                int[] v = parseInts(line, lineNo);
+
+                // 1. 첫 줄: 원본 크기
+                if (dim == null) {
+                    if (v.length != 2 || v[0] <= 0 || v[1] <= 0) {
+                        throw new IOException(lineNo + "번째 줄: 원본 크기는 양수 \"가로,세로\"여야 합니다.");
+                    }
+                    dim = new Dimension(v[0], v[1]);
+                    continue;
+                }
+
+                // 2. 나머지: 정답 좌표
+                if (v.length != 4 || v[2] <= 0 || v[3] <= 0) {
+                    throw new IOException(lineNo + "번째 줄: 정답은 \"x,y,가로,세로\" (크기는 양수)여야 합니다.");
+                }
+                Rectangle r = new Rectangle(v[0], v[1], v[2], v[3]);
+                if (!r.intersects(0, 0, dim.width, dim.height)) {
+                    throw new IOException(lineNo + "번째 줄: 정답이 이미지 밖에 있습니다.");
+                }
+                answers.add(r);
+            }
+        }
+        if (dim == null) {
+            throw new IOException("빈 파일입니다.");
+        }
+        if (answers.isEmpty()) {
+            throw new IOException("정답이 없습니다.");
+        }
+
+        String imagePath = "images/" + difficulty.label() + round + ".png"; // 예: "images/보통1.png"
+        return new RoundData(id, imagePath, answers, dim);
+    }
+
+    private static int[] parseInts(String line, int lineNo) throws IOException {
+        String[] parts = line.split(",");
+        int[] values = new int[parts.length];
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                values[i] = Integer.parseInt(parts[i].trim());
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException(lineNo + "번째 줄: 숫자가 아닙니다 (" + line.trim() + ")");
+        }
+        return values;
+    }
+}
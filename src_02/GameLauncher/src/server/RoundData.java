@@ -0,0 +1,34 @@
+package server;
+
+import java.awt.Dimension;
+import java.awt.Rectangle;
+import java.util.List;
+
+// 라운드 하나의 정답 정보 (불변)
+// 카탈로그가 만들어 모든 방이 함께 쓴다. 게임마다 바뀌는 '찾음' 상태는 RoundPlay가 가진다.
+final class RoundData {
+
+    private final RoundId id;
+    private final String imagePath;
+    private final List<Rectangle> answers;
+    private final Dimension originalDimension;
+    private final AnswerGrid grid;
+
+    RoundData(RoundId id, String imagePath, List<Rectangle> answers, Dimension originalDimension) {
+        this.id = id;
+        this.imagePath = imagePath;
+        this.answers = List.copyOf(answers);
+        this.originalDimension = new Dimension(originalDimension);
+        this.grid = new AnswerGrid(this.answers, this.originalDimension);
+    }
+
+    RoundId getId() { return id; }
+    String getImagePath() { return imagePath; }
+    List<Rectangle> getAnswers() { return answers; }
+    Dimension getOriginalDimension() { return originalDimension; }
+
+    // 좌표에 있는 정답 번호 (없으면 -1). found가 주어지면 이미 찾은 정답은 없는 것으로 본다.
+    int findAnswerAt(int x, int y, FoundSet found) {
+        return grid.find(x, y, found);
+    }
+}
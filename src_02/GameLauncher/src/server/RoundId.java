@@ -0,0 +1,10 @@
+package server;
+
+// 라운드 식별자 (난이도 + 라운드 번호). 문자열 "쉬움_1" 키 대신 사용
+record RoundId(Difficulty difficulty, int round) {
+
+    @Override
+    public String toString() {
+        return difficulty.label() + "_" + round; // 로그, 파일 이름용
+    }
+}
@@ -0,0 +1,233 @@
+package server;
+
+import java.awt.Dimension;
+import java.awt.Rectangle;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 라운드 묶음 파일 (*.pack, 읽기 전용)
+// 라운드가 수천 개인 레벨 팩을 텍스트로 파싱하지 않도록 한 파일에 이진으로 담는다.
+// 파일은 FileChannel.map으로 열기만 하고, 라운드 내용은 처음 요청될 때 그 부분만 읽는다.
+//
+// 형식 (모두 big-endian int):
+//   헤더: MAGIC, VERSION, 라운드 수
+//   목차: 라운드마다 8개 (난이도 순번, 라운드 번호, 가로, 세로, 정답 위치, 정답 수, 경로 위치, 경로 길이)
+//         (난이도, 라운드 번호) 오름차순 정렬 -> 이진 탐색
+//   본문: 정답 사각형 (x, y, 가로, 세로) 묶음, 이미지 경로 (UTF-8)
+final class RoundPack {
+
+    static final int MAGIC = 0x484F5250; // "HORP"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 12;
+    static final int ENTRY_INTS = 8;
+    static final int ENTRY_BYTES = ENTRY_INTS * 4;
+
+    // 목차 항목 안의 위치 (int 단위)
+    private static final int E_DIFFICULTY = 0;
+    private static final int E_ROUND = 1;
+    private static final int E_WIDTH = 2;
+    private static final int E_HEIGHT = 3;
+    private static final int E_RECT_OFFSET = 4;
+    private static final int E_RECT_COUNT = 5;
+    private static final int E_PATH_OFFSET = 6;
+    private static final int E_PATH_LENGTH = 7;
+
+    private final Path file;
+    private final ByteBuffer buffer; // 절대 위치 get만 사용 (여러 스레드가 동시에 읽어도 안전)
+    private final int count;
+
+    // 한 번 읽은 라운드 (게임마다 다시 만들지 않음)
+    private final Map<RoundId, RoundData> loaded = new ConcurrentHashMap<>();
+
+    private RoundPack(Path file, ByteBuffer buffer, int count) {
+        this.file = file;
+        this.buffer = buffer;
+        this.count = count;
+    }
+
+    // 파일을 매핑하고 헤더와 목차만 검사한다 (라운드 본문은 읽지 않음)
+    static RoundPack open(Path file) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("파일이 너무 큽니다 (2GB 이하).");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size); // 채널을 닫아도 매핑은 유지
+        }
+        if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("라운드 팩 파일이 아닙니다.");
+        }
+        int version = buffer.getInt(4);
+        if (version != VERSION) {
+            throw new IOException("지원하지 않는 버전: " + version);
+        }
+        int count = buffer.getInt(8);
+        if (count < 0 || (long) HEADER_BYTES + (long) count * ENTRY_BYTES > buffer.limit()) {
+            throw new IOException("목차가 잘렸습니다.");
+        }
+
+        RoundPack pack = new RoundPack(file, buffer, count);
+        pack.checkIndex();
+        return pack;
+    }
+
+    // 목차가 정렬되어 있고 본문 위치가 파일 안을 가리키는지 확인
+    private void checkIndex() throws IOException {
+        long prevKey = Long.MIN_VALUE;
+        int difficulties = Difficulty.values().length;
+        for (int i = 0; i < count; i++) {
+            int difficulty = entry(i, E_DIFFICULTY);
+            int round = entry(i, E_ROUND);
+            if (difficulty < 0 || difficulty >= difficulties || round < 1) {
+                throw new IOException(i + "번 항목: 잘못된 라운드 번호");
+            }
+            long key = key(difficulty, round);
+            if (key <= prevKey) {
+                throw new IOException(i + "번 항목: 목차가 정렬되어 있지 않거나 중복됩니다.");
+            }
+            prevKey = key;
+
+            long rectEnd = (long) entry(i, E_RECT_OFFSET) + (long) entry(i, E_RECT_COUNT) * 16;
+            long pathEnd = (long) entry(i, E_PATH_OFFSET) + entry(i, E_PATH_LENGTH);
+            if (entry(i, E_RECT_OFFSET) < 0 || entry(i, E_RECT_COUNT) < 1 || rectEnd > buffer.limit()
+                    || entry(i, E_PATH_OFFSET) < 0 || entry(i, E_PATH_LENGTH) < 0 || pathEnd > buffer.limit()) {
+                throw new IOException(i + "번 항목: 본문 위치가 파일 밖입니다.");
+            }
+        }
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    int size() {
+        return count;
+    }
+
+    boolean contains(RoundId id) {
+        return indexOf(id) >= 0;
+    }
+
+    // 라운드 하나 (없으면 null). 처음 요청될 때만 본문을 읽는다.
+    RoundData get(RoundId id) {
+        RoundData round = loaded.get(id);
+        if (round != null) {
+            return round;
+        }
+        int index = indexOf(id);
+        if (index < 0) {
+            return null;
+        }
+        return loaded.computeIfAbsent(id, key -> read(index, key));
+    }
+
+    private RoundData read(int index, RoundId id) {
+        Dimension dim = new Dimension(entry(index, E_WIDTH), entry(index, E_HEIGHT));
+        int rectOffset = entry(index, E_RECT_OFFSET);
+        int rectCount = entry(index, E_RECT_COUNT);
+        List<Rectangle> answers = new ArrayList<>(rectCount);
+        for (int i = 0; i < rectCount; i++) {
+            int at = rectOffset + i * 16;
+            answers.add(new Rectangle(buffer.getInt(at), buffer.getInt(at + 4),
+                    buffer.getInt(at + 8), buffer.getInt(at + 12)));
+        }
+        return new RoundData(id, imagePath(index), answers, dim);
+    }
+
+    // 팩에 들어 있는 이미지 경로 (중복 제외, 정답 본문은 읽지 않음)
+    Set<String> imagePaths() {
+        Set<String> paths = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            paths.add(imagePath(i));
+        }
+        return paths;
+    }
+
+    private String imagePath(int index) {
+        byte[] path = new byte[entry(index, E_PATH_LENGTH)];
+        buffer.get(entry(index, E_PATH_OFFSET), path);
+        return new String(path, StandardCharsets.UTF_8);
+    }
+
+    // (난이도, 라운드 번호)로 이진 탐색 (없으면 -1)
+    private int indexOf(RoundId id) {
+        long target = key(id.difficulty().ordinal(), id.round());
+        int lo = 0;
+        int hi = count - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            long key = key(entry(mid, E_DIFFICULTY), entry(mid, E_ROUND));
+            if (key < target) {
+                lo = mid + 1;
+            } else if (key > target) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private int entry(int index, int field) {
+        return buffer.getInt(HEADER_BYTES + index * ENTRY_BYTES + field * 4);
+    }
+
+    private static long key(int difficulty, int round) {
+        return ((long) difficulty << 32) | (round & 0xFFFFFFFFL);
+    }
+
+    // 라운드 목록을 팩 파일 내용으로 (변환 도구용)
+    static byte[] encode(List<RoundData> rounds) {
+        List<RoundData> sorted = new ArrayList<>(rounds);
+        sorted.sort((a, b) -> Long.compare(
+                key(a.getId().difficulty().ordinal(), a.getId().round()),
+                key(b.getId().difficulty().ordinal(), b.getId().round())));
+
+        List<byte[]> paths = new ArrayList<>(sorted.size());
+        int bodyBytes = 0;
+        for (RoundData round : sorted) {
+            byte[] path = round.getImagePath().getBytes(StandardCharsets.UTF_8);
+            paths.add(path);
+            bodyBytes += round.getAnswers().size() * 16 + path.length;
+        }
+
+        int indexEnd = HEADER_BYTES + sorted.size() * ENTRY_BYTES;
+        ByteBuffer out = ByteBuffer.allocate(indexEnd + bodyBytes);
+        out.putInt(MAGIC).putInt(VERSION).putInt(sorted.size());
+
+        int body = indexEnd;
+        for (int i = 0; i < sorted.size(); i++) {
+            RoundData round = sorted.get(i);
+            int rectOffset = body;
+            int pathOffset = rectOffset + round.getAnswers().size() * 16;
+            out.putInt(round.getId().difficulty().ordinal())
+               .putInt(round.getId().round())
+               .putInt(round.getOriginalDimension().width)
+               .putInt(round.getOriginalDimension().height)
+               .putInt(rectOffset)
+               .putInt(round.getAnswers().size())
+               .putInt(pathOffset)
+               .putInt(paths.get(i).length);
+
+            int at = rectOffset;
+            for (Rectangle r : round.getAnswers()) {
+                out.putInt(at, r.x).putInt(at + 4, r.y).putInt(at + 8, r.width).putInt(at + 12, r.height);
+                at += 16;
+            }
+            out.put(pathOffset, paths.get(i));
+            body = pathOffset + paths.get(i).length;
+        }
+        return out.array();
+    }
+}
@@ -0,0 +1,52 @@
+package server;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+// 라운드 텍스트 파일(answers/*.txt) -> 라운드 팩(*.pack) 변환 도구
+// 사용법: java server.RoundPackTool <텍스트 폴더> <출력 .pack 파일>
+// 검증 규칙은 서버가 텍스트 파일을 읽을 때와 같다. 잘못된 파일이 하나라도 있으면 팩을 만들지 않는다.
+public class RoundPackTool {
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.out.println("사용법: java server.RoundPackTool <텍스트 폴더> <출력 .pack 파일>");
+            System.exit(2);
+        }
+        Path dir = Paths.get(args[0]);
+        Path out = Paths.get(args[1]);
+        if (!Files.isDirectory(dir)) {
+            System.out.println("[변환] 폴더가 없습니다: " + dir);
+            System.exit(1);
+        }
+
+        long start = System.nanoTime();
+        List<String> errors = new ArrayList<>();
+        List<RoundData> rounds = RoundCatalog.parseTextFiles(dir, errors);
+        if (!errors.isEmpty()) {
+            for (String error : errors) {
+                System.out.println("[변환] 오류 - " + error);
+            }
+            System.exit(1);
+        }
+        if (rounds.isEmpty()) {
+            System.out.println("[변환] 변환할 라운드 파일이 없습니다: " + dir);
+            System.exit(1);
+        }
+
+        try {
+            byte[] pack = RoundPack.encode(rounds);
+            Files.write(out, pack);
+            RoundPack.open(out); // 다시 열어 목차 확인
+            long ms = (System.nanoTime() - start) / 1_000_000;
+            System.out.println("[변환] 라운드 " + rounds.size() + "개 -> " + out + " (" + pack.length + " bytes, " + ms + "ms)");
+        } catch (IOException e) {
+            System.out.println("[변환] 저장 실패: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package server;
+
+// 진행 중인 라운드 하나 (불변 RoundData + 이번 게임의 찾은 상태)
+// Room은 라운드 시작 때 하나 만들어 두고 클릭마다 직접 사용하므로, 클릭 처리 중에는 키 생성이나 맵 조회가 없다.
+// 찾은 상태는 FoundSet(원자적 비트셋)이라 어느 스레드에서 판정해도 잠금이 필요 없다.
+final class RoundPlay {
+
+    private final RoundData data;
+    private final FoundSet found;
+
+    RoundPlay(RoundData data) {
+        this.data = data;
+        this.found = new FoundSet(data.getAnswers().size());
+    }
+
+    RoundData getData() {
+        return data;
+    }
+
+    // 좌표에 있는 아직 찾지 않은 정답 번호 (없거나 이미 찾았으면 -1)
+    int findAnswerAt(int x, int y) {
+        return data.findAnswerAt(x, y, found);
+    }
+
+    boolean checkAnswer(int answerIndex) {
+        if (answerIndex < 0 || answerIndex >= found.size()) {
+            System.out.println("[GameLogic] 판정 오류: 잘못된 인덱스 " + answerIndex);
+            return false;
+        }
+
+        if (!found.claim(answerIndex)) {
+            System.out.println("[GameLogic] " + data.getId() + " " + answerIndex + "번은 이미 찾음.");
+            return false;
+        }
+
+        System.out.println("[GameLogic] " + data.getId() + " 정답 " + answerIndex + "번 찾음!");
+        return true;
+    }
+
+    // 이미 찾은 올바른 번호인지 (다시 눌러도 감점 없음)
+    boolean isFound(int answerIndex) {
+        return answerIndex >= 0 && answerIndex < found.size() && found.isFound(answerIndex);
+    }
+
+    // 아직 찾지 않은 올바른 번호인지 (동시 클릭 판정 대상)
+    boolean isOpen(int answerIndex) {
+        return answerIndex >= 0 && answerIndex < found.size() && !found.isFound(answerIndex);
+    }
+
+    // O(1): 남은 개수만 확인
+    boolean areAllFound() {
+        return found.allFound();
+    }
+
+    int remaining() {
+        return found.remaining();
+    }
+
+    // 재접속 스냅샷용: 찾은 정답 번호 비트 (비트 i = 정답 i, 바이트마다 낮은 비트부터)
+    byte[] foundBits() {
+        byte[] bits = new byte[(found.size() + 7) / 8];
+        for (int i = 0; i < found.size(); i++) {
+            if (found.isFound(i)) bits[i / 8] |= (byte) (1 << (i % 8));
+        }
+        return bits;
+    }
+}
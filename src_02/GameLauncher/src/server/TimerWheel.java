@@ -0,0 +1,150 @@
+package server;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// 계층형 타이밍 휠 (모든 방의 라운드 마감, 점수 전송 틱, 동시 클릭 판정 창, 연결 무응답 확인을 스레드 하나로 관리)
+// 시간을 TICK_MILLIS 단위 틱으로 나누고, 남은 틱 수에 따라 3단계 휠(각 256칸) 중 한 칸에 넣는다.
+//   0단계: 256틱 이내 (기본 10ms 틱이면 2.56초), 1단계: 65536틱 이내 (약 11분), 2단계: 그 이상 (약 46시간)
+// 상위 단계의 칸은 차례가 오면 한 단계 아래로 다시 나눠 넣고(cascade), 0단계 칸이 차례가 되면 실행한다.
+// 예약/취소는 O(1)이고, 틱마다 하는 일은 그 칸에 든 타이머 수에 비례하므로 타이머가 수천 개여도 스레드 하나로 충분하다.
+//
+// 작업은 휠 스레드에서 실행되므로 짧아야 한다 (방은 자기 Mailbox에 이벤트를 넣기만 함).
+// 제한 시간 확인처럼 자주 연장되는 타이머는 취소/재예약 대신, 실행될 때 남은 시간을 보고 다시 거는 방식으로 쓴다.
+class TimerWheel {
+
+    static final long TICK_MILLIS = Long.getLong("lobby.timerTickMillis", 10);
+
+    private static final int WHEEL_BITS = 8;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 3;
+
+    // 서버 전체 공유
+    static final TimerWheel SHARED = new TimerWheel("lobby-timer");
+
+    // 예약된 타이머 하나. cancel은 어느 스레드에서든 가능 (휠에서는 차례가 왔을 때 버려짐)
+    static final class Timeout {
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final Runnable task;
+        private final long deadlineTick;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+
+        private Timeout(Runnable task, long deadlineTick) {
+            this.task = task;
+            this.deadlineTick = deadlineTick;
+        }
+
+        // 아직 실행되지 않았으면 취소하고 true
+        boolean cancel() {
+            return state.compareAndSet(PENDING, CANCELLED);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private final ArrayDeque<Timeout>[][] wheels = new ArrayDeque[LEVELS][WHEEL_SIZE];
+    private final Queue<Timeout> incoming = new ConcurrentLinkedQueue<>(); // 다른 스레드에서 예약한 타이머
+    private final long startNanos = System.nanoTime();
+    private long currentTick; // 휠 스레드만 사용 (이 틱까지 처리함)
+
+    TimerWheel(String name) {
+        for (ArrayDeque<Timeout>[] wheel : wheels) {
+            for (int i = 0; i < WHEEL_SIZE; i++) {
+                wheel[i] = new ArrayDeque<>();
+            }
+        }
+        Thread thread = new Thread(this::run, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // delayMillis 뒤에 task 실행 (마감 시각을 틱 단위로 올림: 일찍 실행되는 일은 없고, 늦어도 한 틱 정도)
+    Timeout schedule(Runnable task, long delayMillis) {
+        long deadlineNanos = System.nanoTime() - startNanos + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMillis));
+        long tickNanos = TimeUnit.MILLISECONDS.toNanos(TICK_MILLIS);
+        Timeout timeout = new Timeout(task, (deadlineNanos + tickNanos - 1) / tickNanos);
+        incoming.add(timeout);
+        return timeout;
+    }
+
+    // 지금까지 지난 틱 수 (틱 k는 시작 후 k * TICK_MILLIS가 지나야 처리됨)
+    private long tickNow() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) / TICK_MILLIS;
+    }
+
+    private void run() {
+        while (true) {
+            long target = tickNow();
+            while (currentTick < target) {
+                moveIncoming(); // 이번 틱에 실행될 타이머가 빠지지 않도록 틱마다 먼저 옮김
+                advance();
+            }
+            moveIncoming();
+            long nextTickNanos = startNanos + TimeUnit.MILLISECONDS.toNanos((currentTick + 1) * TICK_MILLIS);
+            LockSupport.parkNanos(this, Math.max(0, nextTickNanos - System.nanoTime()));
+        }
+    }
+
+    private void moveIncoming() {
+        Timeout timeout;
+        while ((timeout = incoming.poll()) != null) {
+            place(timeout);
+        }
+    }
+
+    // 남은 틱 수로 단계를 고르고, 마감 틱의 해당 자리 숫자를 칸 번호로 쓴다
+    private void place(Timeout timeout) {
+        if (timeout.state.get() != Timeout.PENDING) return;
+        long deadline = Math.max(timeout.deadlineTick, currentTick + 1); // 이미 지난 마감은 다음 틱에
+        long remaining = deadline - currentTick;
+        for (int level = 0; level < LEVELS; level++) {
+            if (remaining < 1L << (WHEEL_BITS * (level + 1))) {
+                wheels[level][(int) (deadline >>> (WHEEL_BITS * level)) & WHEEL_MASK].add(timeout);
+                return;
+            }
+        }
+        // 최상위 단계보다 먼 마감: 최상위 단계의 가장 먼 칸에 두었다가 차례가 오면 다시 나눔
+        long farthest = currentTick + (1L << (WHEEL_BITS * LEVELS)) - 1;
+        wheels[LEVELS - 1][(int) (farthest >>> (WHEEL_BITS * (LEVELS - 1))) & WHEEL_MASK].add(timeout);
+    }
+
+    // 한 틱 진행: 상위 단계 칸이 차례가 되면 아래로 다시 나누고, 0단계 칸을 실행
+    private void advance() {
+        currentTick++;
+        for (int level = LEVELS - 1; level > 0; level--) {
+            int shift = WHEEL_BITS * level;
+            if ((currentTick & ((1L << shift) - 1)) == 0) {
+                cascade(wheels[level][(int) (currentTick >>> shift) & WHEEL_MASK]);
+            }
+        }
+
+        ArrayDeque<Timeout> bucket = wheels[0][(int) currentTick & WHEEL_MASK];
+        Timeout timeout;
+        while ((timeout = bucket.poll()) != null) {
+            if (timeout.deadlineTick > currentTick) {
+                place(timeout); // 최상위 단계에서 늦게 내려온 경우 (이론상 없음)
+            } else if (timeout.state.compareAndSet(Timeout.PENDING, Timeout.EXPIRED)) {
+                try {
+                    timeout.task.run();
+                } catch (RuntimeException e) {
+                    System.out.println("[서버] 타이머 작업 오류: " + e);
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    private void cascade(ArrayDeque<Timeout> bucket) {
+        int count = bucket.size(); // 다시 넣는 타이머가 같은 칸으로 돌아와도 한 번만 처리
+        for (int i = 0; i < count; i++) {
+            place(bucket.poll());
+        }
+    }
+}